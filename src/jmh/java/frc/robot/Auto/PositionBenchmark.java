@@ -0,0 +1,40 @@
+package frc.robot.Auto;
+
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import frc.robot.SampledBenchmark;
+import frc.robot.Util.Vector2;
+
+/**
+ * Benchmarks the Position math run on every accepted Limelight frame.
+ */
+@State(Scope.Thread)
+public class PositionBenchmark extends SampledBenchmark {
+    Position[] positions = new Position[SAMPLES];
+
+    @Setup
+    public void setup() {
+        Random random = new Random(SEED);
+        for (int j = 0; j < SAMPLES; j++) {
+            positions[j] = new Position(random.nextDouble() * 360 - 180,
+                    new Vector2(random.nextGaussian() * 300, random.nextGaussian() * 150));
+        }
+    }
+
+    @Benchmark
+    public Position combine() {
+        int j = next();
+        return positions[j].combine(positions[after(j, 1)], 0.5);
+    }
+
+    @Benchmark
+    public Position difference() {
+        int j = next();
+        return positions[j].difference(positions[after(j, 1)]);
+    }
+}
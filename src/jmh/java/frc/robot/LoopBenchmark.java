@@ -0,0 +1,116 @@
+package frc.robot;
+
+import java.lang.management.ManagementFactory;
+
+import com.sun.management.ThreadMXBean;
+
+import edu.wpi.first.hal.AllianceStationID;
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import frc.robot.Core.LoopProfiler;
+import frc.robot.Core.LoopTimer;
+
+/**
+ * Boots the whole robot in simulation and runs its loop as fast as the CPU
+ * allows, stepping the simulated clock by one period per loop instead of
+ * waiting for it. For disabled, autonomous and teleop it reports the CPU time
+ * and the bytes allocated per robotPeriodic, and the slowest ones. The
+ * simulation step after robotPeriodic isn't counted, only the whole loop's CPU
+ * time includes it.
+ *
+ * The odometry thread isn't started, as it would sample on the wall clock
+ * while the loop runs on the stepped one. The main loop samples the odometry
+ * once per tick instead, so every run does the same work.
+ *
+ * Run it with `./gradlew loopBenchmark`, optionally with
+ * `--args="<loops per mode> <auto>"`.
+ */
+public class LoopBenchmark {
+    static final int WARMUP_LOOPS = 500;
+
+    static final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // Exposes the loop TimedRobot runs on its notifier.
+    static class BenchmarkRobot extends Robot {
+        // The robotPeriodic calls measured so far, reset by run.
+        LoopTimer periodicTimes;
+        long periodicCpuTime = 0;
+        long periodicAllocated = 0;
+
+        void step() {
+            loopFunc();
+        }
+
+        @Override
+        public void robotPeriodic() {
+            if (periodicTimes == null) {
+                super.robotPeriodic();
+                return;
+            }
+            final long startCpuTime = threads.getCurrentThreadCpuTime();
+            final long startAllocated = threads.getCurrentThreadAllocatedBytes();
+            periodicTimes.begin();
+            super.robotPeriodic();
+            periodicTimes.end();
+            periodicCpuTime += threads.getCurrentThreadCpuTime() - startCpuTime;
+            periodicAllocated += threads.getCurrentThreadAllocatedBytes() - startAllocated;
+        }
+    }
+
+    public static void main(String... args) {
+        final int loops = args.length > 0 ? Integer.parseInt(args[0]) : 3000;
+        final String auto = args.length > 1 ? args[1] : "pathplanner";
+
+        if (!HAL.initialize(500, 0))
+            throw new IllegalStateException("Failed to initialize the HAL");
+        // the clock only moves when it is stepped
+        SimHooks.pauseTiming();
+        SubsystemInit.useOdometryThread = false;
+        DriverStationSim.setDsAttached(true);
+        DriverStationSim.setAllianceStationId(AllianceStationID.Blue1);
+
+        final BenchmarkRobot robot = new BenchmarkRobot();
+        robot.robotInit();
+        robot.simulationInit();
+        SmartDashboard.putString("Auto Selector", auto);
+
+        // lets the JIT compile the teleop path before anything is measured
+        run(robot, "warmup", true, false, WARMUP_LOOPS);
+        run(robot, "disabled", false, false, loops);
+        run(robot, "autonomous", true, true, loops);
+        run(robot, "teleop", true, false, loops);
+        System.exit(0);
+    }
+
+    static void run(BenchmarkRobot robot, String mode, boolean enabled, boolean autonomous, int loops) {
+        DriverStationSim.setAutonomous(autonomous);
+        DriverStationSim.setEnabled(enabled);
+        DriverStationSim.notifyNewData();
+
+        robot.periodicTimes = LoopProfiler.timer("Benchmark " + mode);
+        robot.periodicCpuTime = 0;
+        robot.periodicAllocated = 0;
+        long loopCpuTime = 0;
+        for (int i = 0; i < loops; i++) {
+            SimHooks.stepTiming(TimedRobot.kDefaultPeriod);
+            final long startCpuTime = threads.getCurrentThreadCpuTime();
+            robot.step();
+            loopCpuTime += threads.getCurrentThreadCpuTime() - startCpuTime;
+        }
+
+        if (mode.equals("warmup"))
+            return;
+        final LoopTimer periodicTimes = robot.periodicTimes;
+        System.out.printf(
+                "%-10s %6d loops  periodic cpu %9.1f us  alloc %9.0f B  p99 %9.1f us  worst %9.1f us  loop cpu %9.1f us%n",
+                mode, loops,
+                robot.periodicCpuTime / 1e3 / loops,
+                (double) robot.periodicAllocated / loops,
+                periodicTimes.getPercentile(0.99) / 1e3,
+                periodicTimes.getMax() / 1e3,
+                loopCpuTime / 1e3 / loops);
+    }
+}
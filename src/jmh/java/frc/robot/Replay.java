@@ -0,0 +1,67 @@
+package frc.robot;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+import com.sun.management.ThreadMXBean;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import frc.robot.Core.InputLog;
+
+/**
+ * Replays the inputs recorded during a match through the robot code, one tick
+ * per recorded loop and as fast as the CPU allows. The positioning stack sees
+ * the same sensor values and loop times it saw in the match, so its outputs
+ * under "outputs/" are checked against the ones in the match log, and the
+ * replay fails if any of them differ.
+ *
+ * The robot stays disabled, the replay only reproduces what the sensors and
+ * the positioning computed, not what the motors were told. Pose resets made
+ * by autos are recorded as inputs, so they are replayed too.
+ *
+ * Run it with `./gradlew replay --args="<match .wpilog>"`.
+ */
+public class Replay {
+    public static void main(String... args) throws IOException {
+        if (args.length < 1)
+            throw new IllegalArgumentException("Usage: replay <match .wpilog>");
+        // before the robot is constructed, so the devices read from the log
+        InputLog.startReplay(args[0]);
+
+        if (!HAL.initialize(500, 0))
+            throw new IllegalStateException("Failed to initialize the HAL");
+        // the time comes from the log, the simulated clock isn't used
+        SimHooks.pauseTiming();
+        DriverStationSim.setDsAttached(true);
+        DriverStationSim.setEnabled(false);
+        DriverStationSim.notifyNewData();
+
+        final LoopBenchmark.BenchmarkRobot robot = new LoopBenchmark.BenchmarkRobot();
+        robot.robotInit();
+
+        final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long startCpuTime = threads.getCurrentThreadCpuTime();
+        // robotInit replayed the first tick
+        int ticks = 1;
+        while (InputLog.hasNextTick()) {
+            robot.step();
+            ticks++;
+        }
+        final long cpuTime = threads.getCurrentThreadCpuTime() - startCpuTime;
+
+        System.out.printf("replayed %d of %d ticks  cpu %.1f ms  %.1f us/tick%n",
+                ticks, InputLog.getTickCount(), cpuTime / 1e6, ticks > 0 ? cpuTime / 1e3 / ticks : 0.0);
+        DataLogManager.getLog().flush();
+
+        final long mismatches = InputLog.getOutputMismatches();
+        if (mismatches > 0) {
+            System.out.printf("%d outputs differ from the match, first %s%n", mismatches, InputLog.getFirstMismatch());
+            System.exit(1);
+        }
+        System.out.println("every output matches the match");
+        System.exit(0);
+    }
+}
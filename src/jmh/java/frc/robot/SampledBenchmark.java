@@ -0,0 +1,26 @@
+package frc.robot;
+
+/**
+ * The base of the benchmarks that run on a table of random samples. Each
+ * invocation reads the next sample, so the JIT cannot fold the inputs into
+ * constants.
+ */
+public abstract class SampledBenchmark {
+    // A power of two, so the index wraps with a mask.
+    public static final int SAMPLES = 1024;
+    // The seed the samples are generated with, the same for every run.
+    protected static final long SEED = 2024;
+
+    private int i = 0;
+
+    // Steps to the next sample.
+    protected final int next() {
+        i = (i + 1) & (SAMPLES - 1);
+        return i;
+    }
+
+    // Gets the index of the sample some steps after another.
+    protected static int after(int index, int steps) {
+        return (index + steps) & (SAMPLES - 1);
+    }
+}
@@ -0,0 +1,62 @@
+package frc.robot.Util;
+
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import frc.robot.SampledBenchmark;
+
+/**
+ * Benchmarks AngleMath, with both the Math and the lookup table trig backends.
+ */
+@State(Scope.Thread)
+public class AngleMathBenchmark extends SampledBenchmark {
+    @Param({ "false", "true" })
+    boolean trigTable;
+
+    double[] angles = new double[SAMPLES];
+    double[] xs = new double[SAMPLES];
+    double[] ys = new double[SAMPLES];
+
+    @Setup
+    public void setup() {
+        AngleMath.setUseTrigTable(trigTable);
+        Random random = new Random(SEED);
+        for (int j = 0; j < SAMPLES; j++) {
+            angles[j] = random.nextDouble() * 720 - 360;
+            xs[j] = random.nextGaussian();
+            ys[j] = random.nextGaussian();
+        }
+    }
+
+    @Benchmark
+    public double conformAngle() {
+        return AngleMath.conformAngle(angles[next()]);
+    }
+
+    @Benchmark
+    public double getDeltaReversable() {
+        int j = next();
+        return AngleMath.getDeltaReversable(angles[j], angles[after(j, 1)]);
+    }
+
+    @Benchmark
+    public double sinDeg() {
+        return AngleMath.sinDeg(angles[next()]);
+    }
+
+    @Benchmark
+    public double cosDeg() {
+        return AngleMath.cosDeg(angles[next()]);
+    }
+
+    @Benchmark
+    public double atan2Deg() {
+        int j = next();
+        return AngleMath.atan2Deg(ys[j], xs[j]);
+    }
+}
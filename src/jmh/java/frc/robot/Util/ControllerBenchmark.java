@@ -0,0 +1,54 @@
+package frc.robot.Util;
+
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import frc.robot.SampledBenchmark;
+
+/**
+ * Benchmarks one solve of each controller and the ScaleInput curve used on
+ * the joystick every tick.
+ */
+@State(Scope.Thread)
+public class ControllerBenchmark extends SampledBenchmark {
+    // The constants used for the swerve turn, the shooter and the elevator.
+    PIDController pd = new PIDController(new PDConstant(-0.05, 0));
+    PIDController pid = new PIDController(new PIDConstant(0.13, 0.01, 0.002, 12.0));
+    PWIDController pwid = new PWIDController(new PWIDConstant(0.1, 0.0, 0.035, 0.6));
+
+    double[] errors = new double[SAMPLES];
+    double[] inputs = new double[SAMPLES];
+
+    @Setup
+    public void setup() {
+        Random random = new Random(SEED);
+        for (int j = 0; j < SAMPLES; j++) {
+            errors[j] = random.nextGaussian() * 10;
+            inputs[j] = random.nextDouble() * 2 - 1;
+        }
+    }
+
+    @Benchmark
+    public double pdSolve() {
+        return pd.solve(errors[next()], 0.02);
+    }
+
+    @Benchmark
+    public double pidSolve() {
+        return pid.solve(errors[next()], 0.02);
+    }
+
+    @Benchmark
+    public double pwidSolve() {
+        return pwid.solve(errors[next()], 0.02);
+    }
+
+    @Benchmark
+    public double scaleInputCurve() {
+        return ScaleInput.curve(inputs[next()], 1.5);
+    }
+}
@@ -0,0 +1,95 @@
+package frc.robot.Util;
+
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import frc.robot.SampledBenchmark;
+
+/**
+ * Benchmarks the Vector2 operations used by the drive and positioning loops,
+ * with both the Math and the lookup table trig backends.
+ */
+@State(Scope.Thread)
+public class Vector2Benchmark extends SampledBenchmark {
+    @Param({ "false", "true" })
+    boolean trigTable;
+
+    double[] angles = new double[SAMPLES];
+    double[] magnitudes = new double[SAMPLES];
+    Vector2[] vectors = new Vector2[SAMPLES];
+    Vector2 scratch = new Vector2(0, 0);
+    Vector2 sum = new Vector2(0, 0);
+
+    @Setup
+    public void setup() {
+        AngleMath.setUseTrigTable(trigTable);
+        Random random = new Random(SEED);
+        for (int j = 0; j < SAMPLES; j++) {
+            angles[j] = random.nextDouble() * 720 - 360;
+            magnitudes[j] = random.nextDouble() * 12;
+            vectors[j] = new Vector2(random.nextGaussian(), random.nextGaussian());
+        }
+    }
+
+    @Benchmark
+    public Vector2 fromAngleAndMag() {
+        int j = next();
+        return Vector2.fromAngleAndMag(angles[j], magnitudes[j]);
+    }
+
+    @Benchmark
+    public Vector2 setFromAngleAndMag() {
+        int j = next();
+        return scratch.setFromAngleAndMag(angles[j], magnitudes[j]);
+    }
+
+    @Benchmark
+    public Vector2 rotate() {
+        int j = next();
+        return vectors[j].rotate(angles[j]);
+    }
+
+    @Benchmark
+    public Vector2 rotateInPlace() {
+        int j = next();
+        return scratch.set(vectors[j]).rotateInPlace(angles[j]);
+    }
+
+    @Benchmark
+    public double getAngleDeg() {
+        return vectors[next()].getAngleDeg();
+    }
+
+    @Benchmark
+    public Vector2 minus() {
+        int j = next();
+        return vectors[j].minus(vectors[after(j, 1)]);
+    }
+
+    // The four module sum done by PositionedDrive every tick, allocating.
+    @Benchmark
+    public Vector2 moduleSum() {
+        int j = next();
+        return Vector2.fromAngleAndMag(angles[j], magnitudes[j])
+                .add(Vector2.fromAngleAndMag(angles[after(j, 1)], magnitudes[j]))
+                .add(Vector2.fromAngleAndMag(angles[after(j, 2)], magnitudes[j]))
+                .add(Vector2.fromAngleAndMag(angles[after(j, 3)], magnitudes[j]))
+                .multiply(0.25);
+    }
+
+    // The same sum with scratch vectors.
+    @Benchmark
+    public Vector2 moduleSumInPlace() {
+        int j = next();
+        return sum.setFromAngleAndMag(angles[j], magnitudes[j])
+                .addInPlace(scratch.setFromAngleAndMag(angles[after(j, 1)], magnitudes[j]))
+                .addInPlace(scratch.setFromAngleAndMag(angles[after(j, 2)], magnitudes[j]))
+                .addInPlace(scratch.setFromAngleAndMag(angles[after(j, 3)], magnitudes[j]))
+                .multiplyInPlace(0.25);
+    }
+}
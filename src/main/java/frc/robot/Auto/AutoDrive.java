@@ -1,8 +1,9 @@
 package frc.robot.Auto;
 
-import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
-import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.Core.Dispatcher;
+import frc.robot.Core.LoopClock;
+import frc.robot.Core.ProfiledSubsystem;
 import frc.robot.SubsystemInit;
 import frc.robot.Drive.PositionedDrive;
 import frc.robot.Util.AngleMath;
@@ -12,7 +13,7 @@ import frc.robot.Util.Promise;
 import frc.robot.Util.SimplePromise;
 import frc.robot.Util.Vector2;
 
-public class AutoDrive extends SubsystemBase {
+public class AutoDrive extends ProfiledSubsystem {
     FieldPositioning positioning;
     Position targetPos = new Position(0, new Vector2(0, 0));
     PositionedDrive drive;
@@ -53,20 +54,26 @@ public class AutoDrive extends SubsystemBase {
             position.x *= -1;
 
         var prom = new SimplePromise();
-        var autoDrive = this;
         targetPos.position = position;
-        CommandScheduler.getInstance().schedule(new Command() {
-            @Override
-            public void execute() {
-                if (autoDrive.getPositionalError() < 4) {
-                    prom.resolve();
-                    cancel();
-                }
-            }
-        });
+        // the old target's watcher would resolve its promise at the new target
+        var dispatcher = Dispatcher.getInstance();
+        dispatcher.cancelWatchers(this);
+        var watcher = dispatcher.watch(this, () -> getPositionalError() < 4, prom::resolve);
+        prom.onCancel(watcher::cancel);
         return prom;
     }
 
+    /**
+     * Stops driving to the target for good. The watchers are cancelled, the
+     * drive is stopped and the subsystem is unregistered so its periodic stops
+     * running.
+     */
+    public void stop() {
+        Dispatcher.getInstance().cancelWatchers(this);
+        CommandScheduler.getInstance().unregisterSubsystem(this);
+        drive.power(0, 0, 0, false);
+    }
+
     // --
 
     public Promise pointAndThenMoveTo(Vector2 point) {
@@ -78,18 +85,24 @@ public class AutoDrive extends SubsystemBase {
     }
 
     public double getPositionalError() {
-        return positioning.getPosition().minus(targetPos.position).getMagnitude();
+        final Vector2 position = positioning.getPosition();
+        final double dx = position.x - targetPos.position.x;
+        final double dy = position.y - targetPos.position.y;
+        return Math.sqrt(dx * dx + dy * dy);
     }
 
-    public Vector2 displacement;
+    // Reused every tick.
+    public final Vector2 displacement = new Vector2(0, 0);
+    private final Vector2 correct = new Vector2(0, 0);
 
     @Override
-    public void periodic() {
-        displacement = targetPos.position.minus(positioning.getPosition());
-        var correct = new Vector2(
-                xCon.solve(displacement.x, 0.02),
-                yCon.solve(displacement.y, 0.02));
-        var turnCorrect = turnCon.solve(AngleMath.getDelta(positioning.getTurnAngle(), targetPos.angle), 0.02);
+    protected void profiledPeriodic() {
+        displacement.set(targetPos.position).minusInPlace(positioning.getPosition());
+        final double dTime = LoopClock.getDt();
+        correct.set(
+                xCon.solve(displacement.x, dTime),
+                yCon.solve(displacement.y, dTime));
+        var turnCorrect = turnCon.solve(AngleMath.getDelta(positioning.getTurnAngle(), targetPos.angle), dTime);
         drive.power(correct.getMagnitude(), correct.getAngleDeg() + 90 - positioning.getTurnAngle(), turnCorrect,
                 false);
     }
@@ -1,49 +1,81 @@
 package frc.robot.Auto;
 
-import java.util.LinkedList;
-
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.util.Units;
-import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.Core.LoopClock;
+import frc.robot.Core.ProfiledSubsystem;
 import frc.robot.Core.Time;
 import frc.robot.Devices.Imu;
 import frc.robot.Devices.LimeLight;
 import frc.robot.Drive.PositionedDrive;
 import frc.robot.Util.Vector2;
 
-public class AutonomousPositioning extends SubsystemBase implements PositioningSystem {
+public class AutonomousPositioning extends ProfiledSubsystem implements PositioningSystem {
     PositionedDrive drive;
     Imu imu;
     final double correctionTime = 0.5;
-    LinkedList<Position> positionHistory = new LinkedList<>();
+    // makes sure position history doesn't get too long
+    final PoseHistory positionHistory = new PoseHistory((int) (5 / 0.02));
+
+    // The newest position, updated in place whenever the history changes.
+    private final Vector2 position = new Vector2(0, 0);
+    private final Vector2 speed = new Vector2(0, 0);
+    private final Vector2 fieldMovement = new Vector2(0, 0);
 
     public AutonomousPositioning(PositionedDrive drive, Imu imu, Position startPos) {
         this.drive = drive;
         this.imu = imu;
-        positionHistory.add(0, startPos);
+        positionHistory.add(Time.getTimeSincePower(), startPos.position.x, startPos.position.y, startPos.angle);
+        updatePosition();
+    }
+
+    private void updatePosition() {
+        positionHistory.getPosition(0, position);
     }
 
     public void setStartPosition(Position position) {
-        positionHistory.set(0, position);
+        positionHistory.set(0, positionHistory.getTime(0), position.position.x, position.position.y, position.angle);
+        updatePosition();
     }
 
     public void reset(Pose2d pose) {
-        positionHistory.set(0, new Position(pose.getRotation().getDegrees(), new Vector2(pose.getX(), pose.getY())));
+        positionHistory.set(0, positionHistory.getTime(0), pose.getX(), pose.getY(), pose.getRotation().getDegrees());
+        updatePosition();
+    }
+
+    private double getTimeBetweenNewestEntries() {
+        final double dTime = positionHistory.getTime(0) - positionHistory.getTime(1);
+        return dTime > 0 ? dTime : LoopClock.NOMINAL_DT;
     }
 
     public ChassisSpeeds getRobotRelativeSpeeds() {
-        double rotationSpeed = (positionHistory.get(0).angle - positionHistory.get(1).angle) / 0.02;
-        Vector2 translationSpeed = (positionHistory.get(0).position.minus(positionHistory.get(1).position))
-                .multiply(1 / 0.02).rotate(-getTurnAngle());
+        if (positionHistory.size() < 2)
+            return new ChassisSpeeds();
+        // the time between the entries, which is only 20 ms if the loop was on time
+        final double dTime = getTimeBetweenNewestEntries();
+        double rotationSpeed = (positionHistory.getAngle(0) - positionHistory.getAngle(1)) / dTime;
+        speed.set(positionHistory.getX(0) - positionHistory.getX(1), positionHistory.getY(0) - positionHistory.getY(1))
+                .multiplyInPlace(1 / dTime).rotateInPlace(-getTurnAngle());
 
-        return new ChassisSpeeds(translationSpeed.x, translationSpeed.y, rotationSpeed / 180 * Math.PI);
+        return new ChassisSpeeds(speed.x, speed.y, rotationSpeed / 180 * Math.PI);
+    }
+
+    public Position getPoseAt(double fpgaTimestamp) {
+        Position pose = new Position(0, new Vector2(0, 0));
+        if (!positionHistory.getPoseAt(fpgaTimestamp, pose))
+            return null;
+        return pose;
+    }
+
+    public double getOldestSampleAge() {
+        return positionHistory.getOldestSampleAge(Time.getTimeSincePower());
     }
 
     public double getTurnAngle() {
-        return positionHistory.getFirst().angle;
+        return positionHistory.getAngle(0);
     }
 
     public Pose2d getPose2d() {
@@ -51,22 +83,22 @@ public class AutonomousPositioning extends SubsystemBase implements PositioningS
                 new Rotation2d(Units.degreesToRadians(getTurnAngle())));
     }
 
+    /**
+     * Gets the current position. The returned vector is updated in place every
+     * tick, copy it if it needs to be kept.
+     */
     public Vector2 getPosition() {
-        return positionHistory.getFirst().position;
+        return position;
     }
 
-    public void periodic() {
-        Position lastPosition = positionHistory.getFirst();
-        final double currentAngle = lastPosition.angle + imu.getYawDeltaThisTick();
-        positionHistory.add(0, new Position(
-                currentAngle,
-                lastPosition.position.add(drive.movementSinceLastTick.rotate(currentAngle - 90))));
-
-        // makes sure position history doesn't get too long
-        if (positionHistory.size() > 5 / 0.02) {
-            positionHistory.removeLast();
-        }
-
+    protected void profiledPeriodic() {
+        final double currentAngle = positionHistory.getAngle(0) + imu.getYawDeltaThisTick();
+        fieldMovement.set(drive.movementSinceLastTick).rotateInPlace(currentAngle - 90);
+        positionHistory.add(Time.getTimeSincePower(),
+                position.x + fieldMovement.x,
+                position.y + fieldMovement.y,
+                currentAngle);
+        updatePosition();
     }
 
 }
@@ -1,19 +1,24 @@
 package frc.robot.Auto;
 
-import java.util.LinkedList;
-
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
-import edu.wpi.first.wpilibj2.command.SubsystemBase;
-import frc.robot.Core.Time;
+import frc.robot.Core.InputLog;
+import frc.robot.Core.LoopClock;
+import frc.robot.Core.ProfiledSubsystem;
 import frc.robot.Devices.Imu;
 import frc.robot.Devices.LimeLight;
+import frc.robot.Devices.LimeLightFrame;
+import frc.robot.Drive.OdometryThread;
+import frc.robot.Drive.OdometrySnapshot;
 import frc.robot.Drive.PositionedDrive;
+import frc.robot.Util.AngleMath;
 import frc.robot.Util.Vector2;
 
-public class FieldPositioning extends SubsystemBase implements PositioningSystem {
+public class FieldPositioning extends ProfiledSubsystem implements PositioningSystem {
     PositionedDrive drive;
     Imu imu;
     LimeLight limeLight;
+    // When set, the movement comes from the odometry thread instead of the drive.
+    OdometryThread odometry;
     final double correctionTime = 0.5;
 
     boolean hasGottenLimeLightFrame = false;
@@ -23,96 +28,269 @@ public class FieldPositioning extends SubsystemBase implements PositioningSystem
     }
 
     public FieldPositioning(PositionedDrive drive, Imu imu, LimeLight limeLight, Position startPos) {
+        this(drive, imu, limeLight, null, startPos);
+    }
+
+    public FieldPositioning(PositionedDrive drive, Imu imu, LimeLight limeLight, OdometryThread odometry,
+            Position startPos) {
         this.drive = drive;
         this.imu = imu;
         this.limeLight = limeLight;
-        positionHistory.add(0, startPos);
+        this.odometry = odometry;
+        if (odometry != null)
+            readOdometry(lastOdometry);
+        positionHistory.add(InputLog.getTickTime(), startPos.position.x, startPos.position.y, startPos.angle);
+        updatePosition();
     }
 
+    /**
+     * Moves the robot to a pose. Only the correction changes, so the raw
+     * history stays continuous and the speeds and latency lookups across the
+     * reset don't see a jump. A replay applies the resets recorded in the log
+     * instead, as the commands that reset the pose don't run in a replay.
+     */
     public void setStartPosition(Position position) {
-        positionHistory.set(0, position);
+        if (InputLog.isReplaying())
+            return;
+        // the count keeps a reset to the same pose from being deduplicated
+        resetInputs[0]++;
+        resetInputs[1] = position.position.x;
+        resetInputs[2] = position.position.y;
+        resetInputs[3] = position.angle;
+        resetLog.record(resetInputs);
+        applyReset(position.position.x, position.position.y, position.angle);
+    }
+
+    private void applyReset(double x, double y, double angle) {
+        correction.angle = AngleMath.conformAngle(angle - positionHistory.getAngle(0));
+        correction.position.set(x - positionHistory.getX(0), y - positionHistory.getY(0));
+        updatePosition();
+    }
+
+    // The number of resets so far and the pose of the last one.
+    private final double[] resetInputs = new double[4];
+    private final InputLog.Channel resetLog = InputLog.input("FieldPositioning/Reset");
+    private double[] lastReplayedReset = null;
+
+    /**
+     * Applies a reset recorded during the tick being replayed. Resets happen
+     * in commands, which run after periodic, so this runs at the end of
+     * periodic like the reset did in the match.
+     */
+    private void replayReset() {
+        final double[] replayed = resetLog.replay();
+        if (replayed == null || replayed == lastReplayedReset)
+            return;
+        lastReplayedReset = replayed;
+        applyReset(replayed[1], replayed[2], replayed[3]);
     }
 
     double lastLimelightFrameTime = Double.NEGATIVE_INFINITY;
-    Position lastLimelightFrameOffset = new Position(0, new Vector2(0, 0));
-    LinkedList<Position> positionHistory = new LinkedList<>();
+    // The history holds raw odometry, the field position of an entry is the
+    // entry plus the correction accumulated from every Limelight frame so far.
+    // Its capacity makes sure position history doesn't get too long.
+    final PoseHistory positionHistory = new PoseHistory((int) (5 / 0.02));
+    final Position correction = new Position(0, new Vector2(0, 0));
+
+    // The newest position, updated in place whenever the history changes.
+    private final Vector2 position = new Vector2(0, 0);
+    private final Vector2 speed = new Vector2(0, 0);
 
-    private boolean isRationalLimelightFrame() {
-        final boolean isAllZero = limeLight.getRobotX() == 0 && limeLight.getRobotY() == 0
-                && limeLight.getRobotZ() == 0;
-        return limeLight.botPoseChanged() && !isAllZero;
+    private void updatePosition() {
+        positionHistory.getPosition(0, position).addInPlace(correction.position);
+    }
+
+    /**
+     * Gets a corrected position from the history. This allocates, it is only
+     * used when a Limelight frame arrives.
+     *
+     * @param index The index of the entry, 0 being the newest.
+     */
+    private Position getCorrectedPosition(int index) {
+        return new Position(
+                AngleMath.conformAngle(positionHistory.getAngle(index) + correction.angle),
+                positionHistory.getPosition(index, new Vector2(0, 0)).addInPlace(correction.position));
+    }
+
+    private boolean isRationalLimelightFrame(LimeLightFrame frame) {
+        final boolean isAllZero = frame.x == 0 && frame.y == 0 && frame.z == 0;
+        return !isAllZero;
     }
 
     @Override
     public double getTurnAngle() {
-        return positionHistory.getFirst().angle;
+        return AngleMath.conformAngle(positionHistory.getAngle(0) + correction.angle);
     }
 
+    /**
+     * Gets the current position. The returned vector is updated in place every
+     * tick, copy it if it needs to be kept.
+     */
     @Override
     public Vector2 getPosition() {
-        return positionHistory.getFirst().position;
+        return position;
     }
 
-    public Position predictedPositionAtLastLimelightFrame() {
-        // long currentTimeSinceEpoch = System.currentTimeMillis();
-        // long receiveTimeSinceEpoch = limeLight.getLastReceiveTime();
-        double latencyImageTakenToNow = limeLight.getRobotLatency() / 1000;
+    @Override
+    public Position getPoseAt(double fpgaTimestamp) {
+        Position pose = new Position(0, new Vector2(0, 0));
+        if (!positionHistory.getPoseAt(fpgaTimestamp, pose))
+            return null;
+        pose.angle = AngleMath.conformAngle(pose.angle + correction.angle);
+        pose.position.addInPlace(correction.position);
+        return pose;
+    }
 
-        int predictedPositionIndex = (int) (latencyImageTakenToNow / 0.02);
+    @Override
+    public double getOldestSampleAge() {
+        return positionHistory.getOldestSampleAge(InputLog.getTickTime());
+    }
 
-        if (predictedPositionIndex >= positionHistory.size()) {
-            return null;
-        }
+    public Position predictedPositionAtLastLimelightFrame() {
+        return predictedPositionAtFrame(limeLight.getFrame());
+    }
 
-        return positionHistory.get(predictedPositionIndex);
+    private Position predictedPositionAtFrame(LimeLightFrame frame) {
+        // the frame was captured its latency before it was received
+        double latencyImageTakenToReceived = frame.latency / 1000;
+        double receiveTime = frame.receiveTime / 1e6;
 
+        return getPoseAt(receiveTime - latencyImageTakenToReceived);
+    }
+
+    private double getTimeBetweenNewestEntries() {
+        final double dTime = positionHistory.getTime(0) - positionHistory.getTime(1);
+        return dTime > 0 ? dTime : LoopClock.NOMINAL_DT;
     }
 
     @Override
     public ChassisSpeeds getRobotRelativeSpeeds() {
-        double rotationSpeed = (positionHistory.get(0).angle - positionHistory.get(1).angle) / 0.02;
-        Vector2 translationSpeed = (positionHistory.get(0).position.minus(positionHistory.get(1).position))
-                .multiply(1 / 0.02).rotate(-getTurnAngle());
+        if (positionHistory.size() < 2)
+            return new ChassisSpeeds();
+        // the time between the entries, which is only 20 ms if the loop was on time
+        final double dTime = getTimeBetweenNewestEntries();
+        double rotationSpeed = (positionHistory.getAngle(0) - positionHistory.getAngle(1)) / dTime;
+        speed.set(positionHistory.getX(0) - positionHistory.getX(1), positionHistory.getY(0) - positionHistory.getY(1))
+                .multiplyInPlace(1 / dTime).rotateInPlace(-getTurnAngle());
 
-        return new ChassisSpeeds(translationSpeed.x, translationSpeed.y, rotationSpeed / 180 * Math.PI);
+        return new ChassisSpeeds(speed.x, speed.y, rotationSpeed / 180 * Math.PI);
     }
 
     public Vector2 getFieldRelativeSpeed() {
-        return positionHistory.getFirst().position.minus(positionHistory.get(1).position).multiply(1 / 0.02);
+        if (positionHistory.size() < 2)
+            return new Vector2(0, 0);
+        return new Vector2(positionHistory.getX(0) - positionHistory.getX(1),
+                positionHistory.getY(0) - positionHistory.getY(1)).multiply(1 / getTimeBetweenNewestEntries());
     }
 
+    /**
+     * Reads the odometry thread's latest result, or the one recorded in the log
+     * being replayed. The thread runs on its own clock, so its result is an
+     * input like any sensor.
+     */
+    private void readOdometry(OdometrySnapshot out) {
+        if (InputLog.isReplaying()) {
+            final double[] replayed = odometryLog.replay();
+            if (replayed == null)
+                return;
+            out.x = replayed[0];
+            out.y = replayed[1];
+            out.yaw = replayed[2];
+            out.time = replayed[3];
+            out.samples = (long) replayed[4];
+            return;
+        }
+        // without the thread the main loop samples once per tick
+        if (!odometry.isAlive())
+            odometry.sample();
+        odometry.read(out);
+        odometryInputs[0] = out.x;
+        odometryInputs[1] = out.y;
+        odometryInputs[2] = out.yaw;
+        odometryInputs[3] = out.time;
+        odometryInputs[4] = out.samples;
+        odometryLog.record(odometryInputs);
+    }
+
+    // Adds the movement integrated by the odometry thread since the last tick.
+    private void addOdometryThreadMovement() {
+        readOdometry(odometrySnapshot);
+        if (odometrySnapshot.samples == lastOdometry.samples)
+            return;
+        final double yawDelta = odometrySnapshot.yaw - lastOdometry.yaw;
+        final double currentAngle = positionHistory.getAngle(0) + yawDelta;
+        // the thread's displacement is in the gyro's frame, the difference between
+        // the corrected heading and the yaw rotates it onto the field
+        final double gyroToField = currentAngle + correction.angle - odometrySnapshot.yaw;
+        fieldMovement.set(odometrySnapshot.x - lastOdometry.x, odometrySnapshot.y - lastOdometry.y)
+                .rotateInPlace(gyroToField - 90);
+        positionHistory.add(odometrySnapshot.time,
+                positionHistory.getX(0) + fieldMovement.x,
+                positionHistory.getY(0) + fieldMovement.y,
+                currentAngle);
+        lastOdometry.set(odometrySnapshot);
+    }
+
+    private void applyLimelightFrame(LimeLightFrame frame) {
+        hasGottenLimeLightFrame = true;
+        final double frameTime = frame.receiveTime / 1e6;
+        final double timeSinceLastFrame = frameTime - lastLimelightFrameTime;
+        lastLimelightFrameTime = frameTime;
+        final Position limelightPositionAtFrame = new Position(frame.yaw, new Vector2(frame.x, frame.y));
+        Position predictedPositionAtFrame = predictedPositionAtFrame(frame);
+        if (predictedPositionAtFrame == null)
+            predictedPositionAtFrame = getCorrectedPosition(0);
+
+        Position adjustedPosition;
+        // if the time since the last reading is more than 20 ms, we scrub the
+        // extrapolated position from the drive
+        if (timeSinceLastFrame < 20) {
+            adjustedPosition = limelightPositionAtFrame.combine(predictedPositionAtFrame, 0.5);
+        } else {
+            adjustedPosition = limelightPositionAtFrame;
+        }
+        Position offsetPosition = adjustedPosition.difference(predictedPositionAtFrame);
+        // shifts the whole history at once, applied lazily when it is read
+        correction.angle = AngleMath.conformAngle(correction.angle + offsetPosition.angle);
+        correction.position.addInPlace(offsetPosition.position);
+        updatePosition();
+    }
+
+    private final Vector2 fieldMovement = new Vector2(0, 0);
+    private final OdometrySnapshot odometrySnapshot = new OdometrySnapshot();
+    private final OdometrySnapshot lastOdometry = new OdometrySnapshot();
+    private final double[] odometryInputs = new double[5];
+    private final InputLog.Channel odometryLog = InputLog.input("Odometry");
+    // The pose every tick, to compare a replay against the match.
+    private final double[] poseOutputs = new double[3];
+    private final InputLog.Channel poseLog = InputLog.output("FieldPositioning/Pose");
+
     @Override
-    public void periodic() {
-        Position lastPosition = positionHistory.getFirst();
-        final double currentAngle = lastPosition.angle + imu.getYawDeltaThisTick();
-        positionHistory.add(0, new Position(
-                currentAngle,
-                lastPosition.position.add(drive.movementSinceLastTick.rotate(currentAngle - 90))));
-
-        // makes sure position history doesn't get too long
-        if (positionHistory.size() > 5 / 0.02) {
-            positionHistory.removeLast();
+    protected void profiledPeriodic() {
+        if (odometry != null) {
+            addOdometryThreadMovement();
+        } else {
+            final double currentAngle = positionHistory.getAngle(0) + imu.getYawDeltaThisTick();
+            // the movement is rotated by the corrected heading
+            fieldMovement.set(drive.movementSinceLastTick).rotateInPlace(currentAngle + correction.angle - 90);
+            positionHistory.add(InputLog.getTickTime(),
+                    positionHistory.getX(0) + fieldMovement.x,
+                    positionHistory.getY(0) + fieldMovement.y,
+                    currentAngle);
         }
+        updatePosition();
 
-        if (isRationalLimelightFrame()) {
-            hasGottenLimeLightFrame = true;
-            final double timeSinceLastFrame = Time.getTimeSincePower() - lastLimelightFrameTime;
-            lastLimelightFrameTime = Time.getTimeSincePower();
-            final Position limelightPositionAtFrame = limeLight.getRobotPosition();
-            Position predictedPositionAtFrame = predictedPositionAtLastLimelightFrame();
-            if (predictedPositionAtFrame == null)
-                predictedPositionAtFrame = positionHistory.getFirst();
-
-            Position adjustedPosition;
-            // if the time since the last reading is more than 20 ms, we scrub the
-            // extrapolated position from the drive
-            if (timeSinceLastFrame < 20) {
-                adjustedPosition = limelightPositionAtFrame.combine(predictedPositionAtFrame, 0.5);
-            } else {
-                adjustedPosition = limelightPositionAtFrame;
-            }
-            Position offsetPosition = adjustedPosition.difference(predictedPositionAtFrame);
-            positionHistory.replaceAll(e -> e.add(offsetPosition));
+        // every frame since the last tick is applied in the order it was taken
+        for (int i = 0; i < limeLight.getFrameCount(); i++) {
+            final LimeLightFrame frame = limeLight.getFrame(i);
+            if (isRationalLimelightFrame(frame))
+                applyLimelightFrame(frame);
         }
+        poseOutputs[0] = position.x;
+        poseOutputs[1] = position.y;
+        poseOutputs[2] = getTurnAngle();
+        poseLog.record(poseOutputs);
+        if (InputLog.isReplaying())
+            replayReset();
     }
 }
\ No newline at end of file
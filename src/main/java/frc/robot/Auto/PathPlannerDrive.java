@@ -1,26 +1,19 @@
 package frc.robot.Auto;
 
-import com.ctre.phoenix6.mechanisms.swerve.SwerveModule;
-import com.ctre.phoenix6.mechanisms.swerve.SwerveModule.DriveRequestType;
-import com.ctre.phoenix6.mechanisms.swerve.SwerveModule.SteerRequestType;
 import com.pathplanner.lib.auto.AutoBuilder;
 
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
-import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
-import edu.wpi.first.math.kinematics.SwerveDriveOdometry;
-import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.math.util.Units;
 import edu.wpi.first.wpilibj.DriverStation;
-import edu.wpi.first.wpilibj2.command.SubsystemBase;
-import frc.robot.RobotContainer;
-import frc.robot.Devices.Imu;
-import frc.robot.Drive.SwerveModulePD;
-import frc.robot.Util.AngleMath;
+import frc.robot.Core.LoopClock;
+import frc.robot.Core.ProfiledSubsystem;
+import frc.robot.Drive.PositionedDrive;
 import frc.robot.Util.DeSpam;
-import frc.robot.Util.PDConstant;
+import frc.robot.Util.Lambda;
 import frc.robot.Util.Vector2;
 
 import com.pathplanner.lib.util.HolonomicPathFollowerConfig;
@@ -31,59 +24,16 @@ import com.pathplanner.lib.util.ReplanningConfig;
 import edu.wpi.first.wpilibj.smartdashboard.Field2d;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 
-public class PathPlannerDrive extends SubsystemBase {
-
-    /**
-     * Drive is a class representing the swerve drive system of a robot.
-     * It manages the coordination of the swerve modules for driving and turning
-     * movements.
-     */
-
-    // Swerve modules for each corner of the robot.
-    public SwerveModule frontLeft;
-    protected SwerveModule frontRight;
-    public SwerveModule backLeft;
-    protected SwerveModule backRight;
-
-    // Dimensions of the robot.
-    protected double widthInches;
-    protected double lengthInches;
-    protected double circumferenceInches; // Calculated circumference for turning calculations.
-
-    // The minimum alignment before driving starts.
-    private double alignmentThreshold = 1;
-    private Imu gyro;
-
-    /**
-     * Sets the threshold for how closely aligned the modules need to be to their
-     * target positions before driving begins.
-     * 
-     * @param newThreshold A value between 0 (exclusive) and 1 (inclusive)
-     *                     representing the alignment threshold.
-     */
-    public void setAlignmentThreshold(double newThreshold) {
-        if (newThreshold <= 0 || newThreshold > 1)
-            throw new Error("Threshold must be in range (0, 1]");
-        this.alignmentThreshold = newThreshold;
-    }
-
-    SwerveModule[] modules;
-    SwerveDriveKinematics kinematics;
-    SwerveDriveOdometry odometry;
-    private Field2d field = new Field2d();
-
-    /**
-     * Constructor for Drive that sets up the swerve modules and the robot's
-     * dimensions.
-     * 
-     * @param frontLeft    The front-left swerve module.
-     * @param frontRight   The front-right swerve module.
-     * @param backLeft     The back-left swerve module.
-     * @param backRight    The back-right swerve module.
-     * @param widthInches  The width of the robot in inches.
-     * @param lengthInches The length of the robot in inches.
-     */
-
+/**
+ * PathPlannerDrive lets PathPlanner's AutoBuilder drive the PositionedDrive
+ * and read the pose from FieldPositioning, so the swerve hardware and the
+ * odometry exist once for both teleop and autos.
+ *
+ * FieldPositioning works in inches with the origin at the center of the field,
+ * PathPlanner works in meters with the origin at the blue corner. Both measure
+ * angles counterclockwise from the red side.
+ */
+public class PathPlannerDrive extends ProfiledSubsystem {
     public class Constants {
         public static final double maxModuleSpeed = 4.5; // M/S
 
@@ -93,23 +43,21 @@ public class PathPlannerDrive extends SubsystemBase {
                 maxModuleSpeed,
                 0.7112, // Drive base radius (distance from center to furthest module)
                 new ReplanningConfig());
+
+        // The distance from the blue corner to the center of the 2024 field.
+        public static final double fieldCenterX = 16.541 / 2; // M
+        public static final double fieldCenterY = 8.211 / 2; // M
     }
 
-    public PathPlannerDrive(SwerveModule frontLeft, SwerveModule frontRight, SwerveModule backLeft,
-            SwerveModule backRight, Imu imu) {
-        this.frontLeft = frontLeft;
-        this.frontRight = frontRight;
-        this.backLeft = backLeft;
-        this.backRight = backRight;
-
-        this.circumferenceInches = 2 * Math.PI
-                * Math.sqrt((widthInches * widthInches + lengthInches * lengthInches) / 2);
-        modules = new SwerveModule[] {
-                frontLeft, frontRight, backLeft, backRight
-        };
-        this.kinematics = new SwerveDriveKinematics(
-                new Translation2d[] { new Translation2d(-0.3556, 0.3556), new Translation2d(0.3556, 0.3556),
-                        new Translation2d(-0.3556, -0.3556), new Translation2d(0.3556, -0.3556) });
+    PositionedDrive drive;
+    FieldPositioning positioning;
+    SwerveDriveKinematics kinematics;
+    private Field2d field = new Field2d();
+
+    public PathPlannerDrive(PositionedDrive drive, FieldPositioning positioning) {
+        this.drive = drive;
+        this.positioning = positioning;
+        this.kinematics = drive.getKinematics();
 
         AutoBuilder.configureHolonomic(
                 this::getPose,
@@ -129,48 +77,45 @@ public class PathPlannerDrive extends SubsystemBase {
                     }
                     return false;
                 },
-                this);
+                // paths need the drive itself, so they interrupt teleop driving
+                drive);
         PathPlannerLogging.setLogActivePathCallback((poses) -> field.getObject("path").setPoses(poses));
 
         SmartDashboard.putData("Field", field);
-        this.gyro = imu;
-        odometry = new SwerveDriveOdometry(kinematics, gyro.getRotation2d(), getPositions());
-
     }
 
-    public SwerveModulePosition[] getPositions() {
-        SwerveModulePosition[] positions = new SwerveModulePosition[modules.length];
-        for (int i = 0; i < modules.length; i++) {
-            positions[i] = modules[i].getPosition(true);
-        }
-        return positions;
-    }
-
-    public void fromChassisSpeeds(ChassisSpeeds speeds) {
-        SwerveModuleState[] states = kinematics.toSwerveModuleStates(speeds);
-        for (int i = 0; i < modules.length; i++) {
-            modules[i].apply(states[i], DriveRequestType.Velocity);
-        }
-    }
+    // the field widget only needs to be redrawn a few times a second
+    private final DeSpam fieldSpam = new DeSpam(0.1);
+    private final Lambda updateField = () -> field.setRobotPose(getPose());
 
     @Override
-    public void periodic() {
-
-        odometry.update(gyro.getRotation2d(), getPositions());
-
-        field.setRobotPose(getPose());
+    protected void profiledPeriodic() {
+        fieldSpam.exec(updateField);
     }
 
+    // Gets the pose in meters from the blue corner.
     public Pose2d getPose() {
-        return odometry.getPoseMeters();
+        final Vector2 position = positioning.getPosition();
+        return new Pose2d(
+                Units.inchesToMeters(position.x) + Constants.fieldCenterX,
+                Units.inchesToMeters(position.y) + Constants.fieldCenterY,
+                Rotation2d.fromDegrees(positioning.getTurnAngle()));
     }
 
+    // Moves the positioning to a pose in meters from the blue corner.
     public void resetPose(Pose2d pose) {
-        odometry.resetPosition(gyro.getRotation2d(), getPositions(), pose);
+        positioning.setStartPosition(new Position(pose.getRotation().getDegrees(), new Vector2(
+                Units.metersToInches(pose.getX() - Constants.fieldCenterX),
+                Units.metersToInches(pose.getY() - Constants.fieldCenterY))));
     }
 
+    // Gets the robot relative speeds in m/s.
     public ChassisSpeeds getSpeeds() {
-        return kinematics.toChassisSpeeds(getModuleStates());
+        final ChassisSpeeds speeds = positioning.getRobotRelativeSpeeds();
+        return new ChassisSpeeds(
+                Units.inchesToMeters(speeds.vxMetersPerSecond),
+                Units.inchesToMeters(speeds.vyMetersPerSecond),
+                speeds.omegaRadiansPerSecond);
     }
 
     public void driveFieldRelative(ChassisSpeeds fieldRelativeSpeeds) {
@@ -178,7 +123,7 @@ public class PathPlannerDrive extends SubsystemBase {
     }
 
     public void driveRobotRelative(ChassisSpeeds robotRelativeSpeeds) {
-        ChassisSpeeds targetSpeeds = ChassisSpeeds.discretize(robotRelativeSpeeds, 0.02);
+        ChassisSpeeds targetSpeeds = ChassisSpeeds.discretize(robotRelativeSpeeds, LoopClock.NOMINAL_DT);
 
         SwerveModuleState[] targetStates = kinematics.toSwerveModuleStates(targetSpeeds);
         setStates(targetStates);
@@ -186,47 +131,6 @@ public class PathPlannerDrive extends SubsystemBase {
 
     public void setStates(SwerveModuleState[] targetStates) {
         SwerveDriveKinematics.desaturateWheelSpeeds(targetStates, Constants.maxModuleSpeed);
-
-        for (int i = 0; i < modules.length; i++) {
-            modules[i].apply(targetStates[i], DriveRequestType.Velocity, SteerRequestType.MotionMagic);
-        }
+        drive.setStates(targetStates);
     }
-
-    public SwerveModuleState[] getModuleStates() {
-        SwerveModuleState[] states = new SwerveModuleState[modules.length];
-        for (int i = 0; i < modules.length; i++) {
-            states[i] = modules[i].getCurrentState();
-        }
-        return states;
-    }
-
-    /**
-     * Basic simulation of a swerve module, will just hold its current state and not
-     * use any hardware
-     */
-    class SimSwerveModule {
-        private SwerveModulePosition currentPosition = new SwerveModulePosition();
-        private SwerveModuleState currentState = new SwerveModuleState();
-
-        public SwerveModulePosition getPosition() {
-            return currentPosition;
-        }
-
-        public SwerveModuleState getState() {
-            return currentState;
-        }
-
-        public void setTargetState(SwerveModuleState targetState) {
-            // Optimize the state
-            currentState = SwerveModuleState.optimize(targetState, currentState.angle);
-
-            currentPosition = new SwerveModulePosition(
-                    currentPosition.distanceMeters + (currentState.speedMetersPerSecond * 0.02), currentState.angle);
-        }
-    }
-
-    /**
-     * Basic simulation of a gyro, will just hold its current state and not use any
-     * hardware
-     */
 }
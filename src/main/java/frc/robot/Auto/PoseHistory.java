@@ -0,0 +1,187 @@
+package frc.robot.Auto;
+
+import frc.robot.Util.AngleMath;
+import frc.robot.Util.Vector2;
+
+/**
+ * PoseHistory keeps the most recent robot poses, newest first (index 0).
+ * The samples live in parallel primitive arrays used as a circular buffer, so
+ * adding a sample and reading any index are O(1) and never allocate, no
+ * matter how long the history is.
+ */
+public class PoseHistory {
+    private final double[] times;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] angles;
+
+    private int newest = -1; // The slot of the newest sample.
+    private int size = 0;
+
+    /**
+     * Constructs an empty history.
+     *
+     * @param capacity The number of samples kept before the oldest is dropped.
+     */
+    public PoseHistory(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        times = new double[capacity];
+        xs = new double[capacity];
+        ys = new double[capacity];
+        angles = new double[capacity];
+    }
+
+    public int capacity() {
+        return times.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Adds a sample as the newest entry, dropping the oldest one if the history
+     * is full.
+     *
+     * @param time  The timestamp of the sample in seconds.
+     * @param x     The x position.
+     * @param y     The y position.
+     * @param angle The angle in degrees.
+     */
+    public void add(double time, double x, double y, double angle) {
+        newest = newest + 1 == times.length ? 0 : newest + 1;
+        if (size < times.length)
+            size++;
+        write(newest, time, x, y, angle);
+    }
+
+    /**
+     * Overwrites an existing sample.
+     *
+     * @param index The index of the sample, 0 being the newest.
+     */
+    public void set(int index, double time, double x, double y, double angle) {
+        write(slot(index), time, x, y, angle);
+    }
+
+    // Removes every sample.
+    public void clear() {
+        newest = -1;
+        size = 0;
+    }
+
+    public double getTime(int index) {
+        return times[slot(index)];
+    }
+
+    public double getX(int index) {
+        return xs[slot(index)];
+    }
+
+    public double getY(int index) {
+        return ys[slot(index)];
+    }
+
+    public double getAngle(int index) {
+        return angles[slot(index)];
+    }
+
+    /**
+     * Copies the position of a sample into an existing vector.
+     *
+     * @param index The index of the sample, 0 being the newest.
+     * @param out   The vector to write into.
+     * @return The out vector.
+     */
+    public Vector2 getPosition(int index, Vector2 out) {
+        final int slot = slot(index);
+        return out.set(xs[slot], ys[slot]);
+    }
+
+    /**
+     * Creates a Position from a sample. This allocates, prefer the primitive
+     * getters in code that runs every tick.
+     *
+     * @param index The index of the sample, 0 being the newest.
+     */
+    public Position get(int index) {
+        final int slot = slot(index);
+        return new Position(angles[slot], new Vector2(xs[slot], ys[slot]));
+    }
+
+    /**
+     * Finds the pose at a timestamp, interpolating between the two samples
+     * around it. The samples are found with a binary search, so this works no
+     * matter how long each loop took.
+     *
+     * @param time The timestamp in seconds. Timestamps newer than the newest
+     *             sample give the newest sample.
+     * @param out  The position to write into.
+     * @return False if the history is empty or the timestamp is older than the
+     *         oldest sample, in which case out is left unchanged.
+     */
+    public boolean getPoseAt(double time, Position out) {
+        if (size == 0 || time < getTime(size - 1))
+            return false;
+        if (time >= getTime(0)) {
+            out.angle = getAngle(0);
+            getPosition(0, out.position);
+            return true;
+        }
+
+        // Timestamps decrease with the index. Find the newest sample that is not
+        // newer than the timestamp; the sample before it is newer.
+        int low = 1;
+        int high = size - 1;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (getTime(mid) <= time)
+                high = mid;
+            else
+                low = mid + 1;
+        }
+        final int older = slot(low);
+        final int newer = slot(low - 1);
+
+        final double span = times[newer] - times[older];
+        final double t = span > 0 ? (time - times[older]) / span : 0;
+        out.angle = angles[older] + AngleMath.getDelta(angles[older], angles[newer]) * t;
+        out.position.set(
+                xs[older] + (xs[newer] - xs[older]) * t,
+                ys[older] + (ys[newer] - ys[older]) * t);
+        return true;
+    }
+
+    /**
+     * Gets how old the oldest sample is.
+     *
+     * @param now The current timestamp in seconds.
+     * @return The age of the oldest sample in seconds, or 0 if the history is
+     *         empty.
+     */
+    public double getOldestSampleAge(double now) {
+        if (size == 0)
+            return 0;
+        return now - getTime(size - 1);
+    }
+
+    private void write(int slot, double time, double x, double y, double angle) {
+        times[slot] = time;
+        xs[slot] = x;
+        ys[slot] = y;
+        angles[slot] = angle;
+    }
+
+    // Converts an index (0 being the newest) into a slot in the arrays.
+    private int slot(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for pose history.");
+        final int slot = newest - index;
+        return slot < 0 ? slot + times.length : slot;
+    }
+}
@@ -10,4 +10,19 @@ public interface PositioningSystem {
 
     ChassisSpeeds getRobotRelativeSpeeds();
 
+    /**
+     * Gets the pose at an earlier time, interpolated from the history.
+     *
+     * @param fpgaTimestamp The FPGA timestamp in seconds.
+     * @return The pose, or null if the timestamp is older than the history.
+     */
+    Position getPoseAt(double fpgaTimestamp);
+
+    /**
+     * Gets how far back getPoseAt can look.
+     *
+     * @return The age of the oldest retained sample in seconds.
+     */
+    double getOldestSampleAge();
+
 }
@@ -1,13 +1,14 @@
 package frc.robot.Components;
 
-import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.Core.LoopClock;
+import frc.robot.Core.ProfiledSubsystem;
 import frc.robot.Devices.BinarySensor;
 import frc.robot.Devices.Motor.TalonFX;
 import frc.robot.Util.MotionController;
 import frc.robot.Util.PDConstant;
 import frc.robot.Util.PIDController;
 
-public class Carriage extends SubsystemBase {
+public class Carriage extends ProfiledSubsystem {
     Double startPos = null;
     TalonFX motor;
     BinarySensor noteSensor;
@@ -50,14 +51,15 @@ public class Carriage extends SubsystemBase {
     }
 
     @Override
-    public void periodic() {
+    protected void profiledPeriodic() {
         if (noteSensor.justEnabled()) {
             startPos = motor.getRevs();
             prepShot = false;
         }
 
         if (startPos != null) {
-            motor.setVoltage(controller.solve(-(motor.getRevs() - (prepShot ? startPos + 4 : startPos + 1.5)), 0.02));
+            motor.setVoltage(controller.solve(-(motor.getRevs() - (prepShot ? startPos + 4 : startPos + 1.5)),
+                    LoopClock.getDt()));
         }
     }
 }
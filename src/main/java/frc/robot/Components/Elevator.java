@@ -1,34 +1,41 @@
 package frc.robot.Components;
 
-import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.Core.Log;
+import frc.robot.Core.ProfiledSubsystem;
+import frc.robot.Devices.AnyMotor;
+import frc.robot.Devices.Motor.MotorGroup;
 import frc.robot.Devices.Motor.TalonFX;
 import frc.robot.Util.DeSpam;
 import frc.robot.Util.MathPlus;
 import frc.robot.Util.MotionController;
 import frc.robot.Devices.BinarySensor;
 
-public class Elevator extends SubsystemBase {
-    TalonFX left;
-    TalonFX right;
+public class Elevator extends ProfiledSubsystem {
+    MotorGroup motors;
+    // The height is read from the leader.
+    AnyMotor left;
     BinarySensor zero;
 
     public Elevator(TalonFX left, TalonFX right, MotionController constant, BinarySensor zero) {
-        this.left = left;
-        this.right = right;
+        this(new MotorGroup(left, right), constant, zero);
+    }
+
+    public Elevator(MotorGroup motors, MotionController constant, BinarySensor zero) {
+        this.motors = motors;
+        this.left = motors.getLeader();
         this.zero = zero;
-        left.setBrakeMode(true);
-        right.setBrakeMode(true);
+        motors.setBrakeMode(true);
 
         left.resetEncoder();
 
         // if (constant instanceof PIDController)
         // ((PIDController) constant).setDeadZone(0.5);
 
-        left.setVelocityPD(constant.clone());
-        right.setVelocityPD(constant.clone());
+        motors.setVelocityPD(constant);
+        // every side given setpoints is solved in the same pass
+        motors.useControllerBank();
 
-        left.setCurrentLimit(80);
-        right.setCurrentLimit(80);
+        motors.setCurrentLimit(80);
     }
 
     public boolean isDown() {
@@ -71,15 +78,13 @@ public class Elevator extends SubsystemBase {
 
     public void climbDown() {
         target = null;
-        left.setVoltage(-12);
-        right.setVoltage(-12);
-        System.out.println("climbed down");
+        motors.setVoltage(-12);
+        Log.info("elevator climbed down");
     }
 
     public void stretch() {
         target = null;
-        left.setVoltage(1);
-        right.setVoltage(1);
+        motors.setVoltage(1);
     }
 
     public void manualControl(boolean goDown, boolean JoystickMoving) {
@@ -89,9 +94,8 @@ public class Elevator extends SubsystemBase {
         direction = direction * 360;
         if (getHeight() < upHeight && getHeight() > downHeight && JoystickMoving) {
             target = null;
-            left.setVelocity(vel);
-            right.setVelocity(vel);
-            System.out.println("moving");
+            motors.setVelocity(vel);
+            Log.debug("elevator moving");
         } else if (getHeight() > upHeight) {
             moveUp();
         } else if (getHeight() < downHeight) {
@@ -116,7 +120,7 @@ public class Elevator extends SubsystemBase {
     DeSpam dSpam = new DeSpam(0.5);
 
     @Override
-    public void periodic() {
+    protected void profiledPeriodic() {
         if (target != null) {
             target = Math.max(Math.min(target, upHeight), downHeight);
             var goingDown = target <= 0;
@@ -130,11 +134,9 @@ public class Elevator extends SubsystemBase {
 
             if (!zero.get() && goingDown) {
                 left.resetEncoder();
-                left.setVoltage(0);
-                right.setVoltage(0);
+                motors.setVoltage(0);
             } else {
-                left.setVelocity(vel);
-                right.setVelocity(vel);
+                motors.setVelocity(vel);
             }
         }
     }
@@ -1,22 +1,34 @@
 package frc.robot.Components;
 
-import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.Core.Log;
+import frc.robot.Core.LoopClock;
+import frc.robot.Core.ProfiledSubsystem;
 import frc.robot.Devices.AnyMotor;
+import frc.robot.Devices.Motor.MotorGroup;
 import frc.robot.Util.MathPlus;
 import frc.robot.Util.MotionController;
 import frc.robot.Util.PWIDConstant;
 import frc.robot.Util.PWIDController;
 
-public class Shooter extends SubsystemBase {
+public class Shooter extends ProfiledSubsystem {
+    MotorGroup motors;
+    // The velocity is read from the leader.
     AnyMotor left;
-    AnyMotor right;
 
     boolean isSpinning = false;
 
     public Shooter(AnyMotor left, AnyMotor right) {
+        this(new MotorGroup(left, right));
+    }
+
+    public Shooter(MotorGroup motors) {
+        this.motors = motors;
+        this.left = motors.getLeader();
+    }
 
-        this.left = left;
-        this.right = right;
+    // The total current both flywheels draw.
+    public double getCurrent() {
+        return motors.getCurrent();
     }
 
     public void spin() {
@@ -47,17 +59,17 @@ public class Shooter extends SubsystemBase {
         return vel * 0.1;
     }
 
-    public void periodic() {
+    protected void profiledPeriodic() {
         if (isSpinning) {
             // adds the output of the controller to the predicted
             // voltage required to reach the velocity
-            double correct = getVoltage(vel) + con.solve(vel - left.getVelocity(), 0.02);
-            System.out.println("vel: " + left.getVelocity() + " target vel: " + vel + " voltage: " + correct);
-            left.setVoltage(correct);
-            right.setVoltage(correct);
+            double correct = getVoltage(vel) + con.solve(vel - left.getVelocity(), LoopClock.getDt());
+            // the velocity is only read again when it will be logged
+            if (Log.isEnabled(Log.Level.DEBUG))
+                Log.debug("shooter vel: {} target vel: {} voltage: {}", left.getVelocity(), vel, correct);
+            motors.setVoltage(correct);
         } else {
-            left.setVoltage(0);
-            right.setVoltage(0);
+            motors.setVoltage(0);
         }
     }
 }
@@ -0,0 +1,191 @@
+package frc.robot.Core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.PriorityQueue;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.Util.Getter;
+import frc.robot.Util.Lambda;
+
+/**
+ * Dispatcher runs every timeout and condition watcher from a single subsystem.
+ * Pending timeouts are kept in a min-heap ordered by deadline, so adding one is
+ * O(log n) and a tick with nothing due only looks at the top of the heap.
+ * Watchers are checked once per tick until their condition is met.
+ *
+ * Like the commands they replace, pending timeouts and watchers are cancelled
+ * when the robot is disabled.
+ */
+public class Dispatcher extends SubsystemBase {
+    private static Dispatcher instance;
+
+    // Gets the dispatcher, registering it with the scheduler the first time.
+    public static Dispatcher getInstance() {
+        if (instance == null)
+            instance = new Dispatcher();
+        return instance;
+    }
+
+    private final PriorityQueue<TimerHandle> timers = new PriorityQueue<>((a, b) -> {
+        final int byDeadline = Double.compare(a.deadline, b.deadline);
+        return byDeadline != 0 ? byDeadline : Long.compare(a.sequence, b.sequence);
+    });
+    // The pending timer of each key.
+    private final HashMap<Object, TimerHandle> keyed = new HashMap<>();
+    private final ArrayList<TimerHandle> deferred = new ArrayList<>();
+    private final ArrayList<WatchHandle> watchers = new ArrayList<>();
+    private long nextSequence = 0;
+    private int cancelledCount = 0;
+
+    private Dispatcher() {
+    }
+
+    /**
+     * Runs a callback after a delay.
+     *
+     * @param key      If not null and a timeout with the same key is pending, no
+     *                 new timeout is added and the pending one is returned.
+     * @param callback The callback to run.
+     * @param seconds  The delay in seconds.
+     * @return The handle of the timeout.
+     */
+    public TimerHandle timeout(Object key, Lambda callback, double seconds) {
+        if (key != null) {
+            final TimerHandle pending = keyed.get(key);
+            if (pending != null)
+                return pending;
+        }
+        final var timer = new TimerHandle(Time.getTimeSincePower() + seconds, nextSequence++, key, callback);
+        timers.add(timer);
+        if (key != null)
+            keyed.put(key, timer);
+        return timer;
+    }
+
+    /**
+     * Runs a callback once a condition is met. The condition is checked once
+     * per tick, starting next tick.
+     *
+     * @param owner     The object the watcher belongs to, used to retire every
+     *                  watcher of an owner with cancelWatchers. Can be null.
+     * @param condition The condition to wait for.
+     * @param callback  The callback to run once the condition is true.
+     * @return The handle of the watcher.
+     */
+    public WatchHandle watch(Object owner, Getter<Boolean> condition, Lambda callback) {
+        final var watcher = new WatchHandle(owner, condition, callback);
+        watchers.add(watcher);
+        return watcher;
+    }
+
+    /**
+     * Cancels every pending watcher of an owner.
+     *
+     * @param owner The owner given to watch.
+     */
+    public void cancelWatchers(Object owner) {
+        for (int i = 0; i < watchers.size(); i++) {
+            final WatchHandle watcher = watchers.get(i);
+            if (watcher.owner == owner)
+                watcher.cancel();
+        }
+    }
+
+    // The number of watchers that are still waiting.
+    public int getWatcherCount() {
+        int count = 0;
+        for (int i = 0; i < watchers.size(); i++) {
+            if (!watchers.get(i).cancelled && !watchers.get(i).done)
+                count++;
+        }
+        return count;
+    }
+
+    // The number of timeouts that haven't run or been cancelled.
+    public int getPendingCount() {
+        return timers.size() - cancelledCount;
+    }
+
+    void cancelled(TimerHandle timer) {
+        if (timer.key != null && keyed.get(timer.key) == timer)
+            keyed.remove(timer.key);
+        // cancelled timers stay in the heap until they are due, unless they start
+        // to make up most of it
+        cancelledCount++;
+        if (cancelledCount > 16 && cancelledCount > timers.size() / 2) {
+            timers.removeIf(t -> t.cancelled);
+            cancelledCount = 0;
+        }
+    }
+
+    // Cancels every pending timeout and watcher.
+    public void cancelAll() {
+        for (TimerHandle timer : timers) {
+            timer.cancelled = true;
+            timer.callback = null;
+        }
+        timers.clear();
+        keyed.clear();
+        cancelledCount = 0;
+        for (WatchHandle watcher : watchers)
+            watcher.cancel();
+        watchers.clear();
+    }
+
+    @Override
+    public void periodic() {
+        if (DriverStation.isDisabled()) {
+            if (!timers.isEmpty() || !watchers.isEmpty())
+                cancelAll();
+            return;
+        }
+
+        final double now = Time.getTimeSincePower();
+        // timeouts added by a callback wait for the next tick, so a callback that
+        // adds a zero second timeout can't loop forever
+        final long lastSequence = nextSequence;
+        while (!timers.isEmpty() && timers.peek().deadline <= now) {
+            final TimerHandle timer = timers.poll();
+            if (timer.cancelled) {
+                cancelledCount--;
+                continue;
+            }
+            if (timer.sequence >= lastSequence) {
+                deferred.add(timer);
+                continue;
+            }
+            timer.done = true;
+            if (timer.key != null)
+                keyed.remove(timer.key);
+            final Lambda callback = timer.callback;
+            timer.callback = null;
+            callback.run();
+        }
+        if (!deferred.isEmpty()) {
+            timers.addAll(deferred);
+            deferred.clear();
+        }
+
+        checkWatchers();
+    }
+
+    private void checkWatchers() {
+        // watchers added by a callback are first checked next tick
+        final int count = watchers.size();
+        for (int i = 0; i < count; i++) {
+            final WatchHandle watcher = watchers.get(i);
+            if (watcher.cancelled || watcher.done)
+                continue;
+            if (watcher.condition.get()) {
+                watcher.done = true;
+                final Lambda callback = watcher.callback;
+                watcher.condition = null;
+                watcher.callback = null;
+                callback.run();
+            }
+        }
+        watchers.removeIf(watcher -> watcher.cancelled || watcher.done);
+    }
+}
@@ -0,0 +1,262 @@
+package frc.robot.Core;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import edu.wpi.first.util.datalog.DataLogReader;
+import edu.wpi.first.util.datalog.DataLogRecord;
+import edu.wpi.first.util.datalog.DoubleArrayLogEntry;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.RobotController;
+
+/**
+ * InputLog records the sensor inputs the robot reads every tick into the
+ * DataLog under "inputs/", so a match can be replayed through the same code
+ * afterwards. When replaying, every input is read back from a log instead of
+ * the hardware and Time follows the logged loop times, so the replay doesn't
+ * depend on the wall clock and runs as fast as the CPU allows.
+ *
+ * Each input has a Channel. A channel only writes a value when it changes, and
+ * a replayed channel reads the newest value written at or before the current
+ * tick. Every record is stamped with the FPGA time of the tick it was read in.
+ *
+ * Outputs recorded while replaying are checked against the outputs recorded in
+ * the match, so a replay that doesn't reproduce the match is caught.
+ */
+public class InputLog {
+    static final String INPUT_PREFIX = "inputs/";
+    static final String OUTPUT_PREFIX = "outputs/";
+
+    private static boolean recording = true;
+    private static boolean replaying = false;
+
+    // The FPGA time of the current tick in microseconds.
+    private static long tickTime = 0;
+    private static final Channel loop = new Channel(INPUT_PREFIX + "Loop", false);
+    private static final double[] loopValue = new double[1];
+
+    private static final HashMap<String, Channel> channels = new HashMap<>();
+    // The loop times of the log being replayed.
+    private static long[] replayTicks = new long[0];
+    private static int replayTick = -1;
+    // The number of output records that differed from the match.
+    private static long outputMismatches = 0;
+    private static String firstMismatch = null;
+
+    /**
+     * Gets the channel of an input, creating it the first time.
+     *
+     * @param name The name of the input, unique to the device.
+     */
+    public static Channel input(String name) {
+        return channel(INPUT_PREFIX + name, false);
+    }
+
+    /**
+     * Gets the channel of a computed value worth comparing between a match and
+     * its replay. Outputs are recorded while replaying too and are never read
+     * back.
+     *
+     * @param name The name of the output.
+     */
+    public static Channel output(String name) {
+        return channel(OUTPUT_PREFIX + name, true);
+    }
+
+    private static synchronized Channel channel(String fullName, boolean isOutput) {
+        var channel = channels.get(fullName);
+        if (channel == null) {
+            channel = new Channel(fullName, isOutput);
+            channels.put(fullName, channel);
+        }
+        return channel;
+    }
+
+    // Turns recording off, for when nothing needs to be replayed.
+    public static void setRecording(boolean enabled) {
+        recording = enabled;
+    }
+
+    public static boolean isReplaying() {
+        return replaying;
+    }
+
+    /**
+     * Starts replaying a log. Has to be called before anything is constructed,
+     * as devices check whether they are replaying when constructed.
+     *
+     * @param path The path of the .wpilog file recorded during the match.
+     */
+    public static synchronized void startReplay(String path) throws IOException {
+        final DataLogReader reader = new DataLogReader(path);
+        if (!reader.isValid())
+            throw new IOException(path + " is not a valid DataLog");
+
+        final HashMap<Integer, Channel> entries = new HashMap<>();
+        final ArrayList<Long> ticks = new ArrayList<>();
+        int loopEntry = -1;
+        for (DataLogRecord record : reader) {
+            if (record.isStart()) {
+                final var start = record.getStartData();
+                if (start.name.equals(loop.name))
+                    loopEntry = start.entry;
+                else if (start.name.startsWith(INPUT_PREFIX))
+                    entries.put(start.entry, channel(start.name, false));
+                else if (start.name.startsWith(OUTPUT_PREFIX))
+                    entries.put(start.entry, channel(start.name, true));
+            } else if (!record.isControl()) {
+                if (record.getEntry() == loopEntry) {
+                    ticks.add(record.getTimestamp());
+                } else {
+                    final Channel channel = entries.get(record.getEntry());
+                    if (channel != null)
+                        channel.addReplayRecord(record.getTimestamp(), record.getDoubleArray());
+                }
+            }
+        }
+
+        replayTicks = new long[ticks.size()];
+        for (int i = 0; i < replayTicks.length; i++)
+            replayTicks[i] = ticks.get(i);
+        replayTick = -1;
+        replaying = true;
+    }
+
+    // Whether the log being replayed has another tick.
+    public static boolean hasNextTick() {
+        return replayTick + 1 < replayTicks.length;
+    }
+
+    // The number of ticks in the log being replayed.
+    public static int getTickCount() {
+        return replayTicks.length;
+    }
+
+    /**
+     * Starts a new tick. Called once at the very start of every loop, before
+     * any input is read or the time is checked.
+     */
+    public static void tick() {
+        if (replaying) {
+            if (hasNextTick())
+                replayTick++;
+            if (replayTick != -1)
+                tickTime = replayTicks[replayTick];
+        } else {
+            tickTime = RobotController.getFPGATime();
+            loopValue[0] = tickTime / 1e6;
+            loop.record(loopValue);
+        }
+    }
+
+    /**
+     * Gets the number of outputs recorded while replaying that differ from the
+     * ones recorded at the same tick of the match. A replay of a match through
+     * the same code should have none.
+     */
+    public static long getOutputMismatches() {
+        return outputMismatches;
+    }
+
+    // The name of the first output that differed and the time it did.
+    public static String getFirstMismatch() {
+        return firstMismatch;
+    }
+
+    /**
+     * Gets the time of the current tick, the same in a match and its replay.
+     *
+     * @return The FPGA time the tick was recorded at, in seconds.
+     */
+    public static double getTickTime() {
+        return tickTime / 1e6;
+    }
+
+    /**
+     * A Channel records one input, an array of numbers read once per tick.
+     */
+    public static class Channel {
+        final String name;
+        final boolean isOutput;
+
+        private DoubleArrayLogEntry entry;
+        // The last values written, so unchanged values are skipped.
+        private double[] last = null;
+
+        // The records of the log being replayed, oldest first.
+        private final ArrayList<Long> replayTimes = new ArrayList<>();
+        private final ArrayList<double[]> replayValues = new ArrayList<>();
+        private int replayIndex = -1;
+
+        Channel(String name, boolean isOutput) {
+            this.name = name;
+            this.isOutput = isOutput;
+        }
+
+        /**
+         * Records the values read this tick, unless they are the same as the
+         * last ones recorded. Does nothing while replaying an input.
+         *
+         * @param values The values.
+         */
+        public void record(double[] values) {
+            record(values, values.length);
+        }
+
+        /**
+         * Records the first values of an array.
+         *
+         * @param values The values.
+         * @param length The number of values to record.
+         */
+        public void record(double[] values, int length) {
+            if (replaying && isOutput)
+                compare(values, length);
+            if (!recording || (replaying && !isOutput))
+                return;
+            if (last != null && Arrays.equals(last, 0, last.length, values, 0, length))
+                return;
+            if (entry == null)
+                entry = new DoubleArrayLogEntry(DataLogManager.getLog(), name);
+            // reused while the length stays the same, the entry copies the
+            // values when appending them
+            if (last != null && last.length == length)
+                System.arraycopy(values, 0, last, 0, length);
+            else
+                last = Arrays.copyOf(values, length);
+            entry.append(last, tickTime);
+        }
+
+        /**
+         * Gets the newest replayed values recorded at or before the current
+         * tick. The array is shared, don't modify it.
+         *
+         * @return The values, or null if none were recorded yet.
+         */
+        public double[] replay() {
+            while (replayIndex + 1 < replayTimes.size() && replayTimes.get(replayIndex + 1) <= tickTime)
+                replayIndex++;
+            return replayIndex == -1 ? null : replayValues.get(replayIndex);
+        }
+
+        // Checks the values against the ones the match recorded at this tick.
+        private void compare(double[] values, int length) {
+            // outputs the match didn't record aren't checked
+            if (replayTimes.isEmpty())
+                return;
+            final double[] expected = replay();
+            if (expected != null && Arrays.equals(expected, 0, expected.length, values, 0, length))
+                return;
+            outputMismatches++;
+            if (firstMismatch == null)
+                firstMismatch = name + " at " + tickTime / 1e6 + " s";
+        }
+
+        void addReplayRecord(long timestamp, double[] values) {
+            replayTimes.add(timestamp);
+            replayValues.add(values);
+        }
+    }
+}
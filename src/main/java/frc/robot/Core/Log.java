@@ -0,0 +1,239 @@
+package frc.robot.Core;
+
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.StringLogEntry;
+import edu.wpi.first.wpilibj.RobotController;
+
+/**
+ * Log is a replacement for System.out.println in code that runs every tick.
+ * A log call only copies its template and up to three numbers into a
+ * preallocated ring buffer, a low priority background thread formats the
+ * records and writes them to the DataLog under "messages". Calls below the
+ * current level return before doing anything. Arguments are still evaluated,
+ * guard calls with expensive arguments with isEnabled.
+ *
+ * Records are buffered until start is called with the log to write to.
+ *
+ * Templates are constant strings where each "{}" is replaced by the next
+ * number, for example Log.info("vel: {} target: {}", vel, target).
+ */
+public class Log {
+    public enum Level {
+        DEBUG, INFO, WARN, ERROR
+    }
+
+    private static final int CAPACITY = 1024;
+    private static final int MAX_ARGS = 3;
+    // How long the writer sleeps when there is nothing to write, in milliseconds.
+    private static final long DRAIN_PERIOD = 50;
+
+    private static volatile int minLevel = Level.INFO.ordinal();
+
+    // The ring buffer, guarded by the Log class lock.
+    private static final long[] times = new long[CAPACITY];
+    private static final Level[] levels = new Level[CAPACITY];
+    private static final String[] templates = new String[CAPACITY];
+    private static final int[] argCounts = new int[CAPACITY];
+    private static final double[] args = new double[CAPACITY * MAX_ARGS];
+    private static int head = 0; // The next record to write.
+    private static int size = 0;
+    private static long dropped = 0;
+
+    private static Thread writer;
+    private static StringLogEntry entry;
+
+    /**
+     * Starts writing the records to a DataLog. Called once from robotInit,
+     * after the DataLogManager is started.
+     *
+     * @param log The log to write to.
+     */
+    public static synchronized void start(DataLog log) {
+        if (writer != null)
+            return;
+        entry = new StringLogEntry(log, "messages");
+        writer = new Thread(Log::drain, "Log");
+        writer.setDaemon(true);
+        writer.setPriority(Thread.MIN_PRIORITY);
+        writer.start();
+    }
+
+    public static void setLevel(Level level) {
+        minLevel = level.ordinal();
+    }
+
+    public static boolean isEnabled(Level level) {
+        return level.ordinal() >= minLevel;
+    }
+
+    // The number of records lost because the buffer was full.
+    public static synchronized long getDroppedCount() {
+        return dropped;
+    }
+
+    public static void debug(String template) {
+        if (Level.DEBUG.ordinal() >= minLevel)
+            write(Level.DEBUG, template, 0, 0, 0, 0);
+    }
+
+    public static void debug(String template, double a) {
+        if (Level.DEBUG.ordinal() >= minLevel)
+            write(Level.DEBUG, template, 1, a, 0, 0);
+    }
+
+    public static void debug(String template, double a, double b) {
+        if (Level.DEBUG.ordinal() >= minLevel)
+            write(Level.DEBUG, template, 2, a, b, 0);
+    }
+
+    public static void debug(String template, double a, double b, double c) {
+        if (Level.DEBUG.ordinal() >= minLevel)
+            write(Level.DEBUG, template, 3, a, b, c);
+    }
+
+    public static void info(String template) {
+        if (Level.INFO.ordinal() >= minLevel)
+            write(Level.INFO, template, 0, 0, 0, 0);
+    }
+
+    public static void info(String template, double a) {
+        if (Level.INFO.ordinal() >= minLevel)
+            write(Level.INFO, template, 1, a, 0, 0);
+    }
+
+    public static void info(String template, double a, double b) {
+        if (Level.INFO.ordinal() >= minLevel)
+            write(Level.INFO, template, 2, a, b, 0);
+    }
+
+    public static void info(String template, double a, double b, double c) {
+        if (Level.INFO.ordinal() >= minLevel)
+            write(Level.INFO, template, 3, a, b, c);
+    }
+
+    public static void warn(String template) {
+        if (Level.WARN.ordinal() >= minLevel)
+            write(Level.WARN, template, 0, 0, 0, 0);
+    }
+
+    public static void warn(String template, double a) {
+        if (Level.WARN.ordinal() >= minLevel)
+            write(Level.WARN, template, 1, a, 0, 0);
+    }
+
+    public static void warn(String template, double a, double b) {
+        if (Level.WARN.ordinal() >= minLevel)
+            write(Level.WARN, template, 2, a, b, 0);
+    }
+
+    public static void warn(String template, double a, double b, double c) {
+        if (Level.WARN.ordinal() >= minLevel)
+            write(Level.WARN, template, 3, a, b, c);
+    }
+
+    public static void error(String template) {
+        write(Level.ERROR, template, 0, 0, 0, 0);
+    }
+
+    public static void error(String template, double a) {
+        write(Level.ERROR, template, 1, a, 0, 0);
+    }
+
+    public static void error(String template, double a, double b) {
+        write(Level.ERROR, template, 2, a, b, 0);
+    }
+
+    public static void error(String template, double a, double b, double c) {
+        write(Level.ERROR, template, 3, a, b, c);
+    }
+
+    private static synchronized void write(Level level, String template, int argCount, double a, double b,
+            double c) {
+        if (size == CAPACITY) {
+            dropped++;
+            return;
+        }
+        final int slot = head;
+        times[slot] = RobotController.getFPGATime();
+        levels[slot] = level;
+        templates[slot] = template;
+        argCounts[slot] = argCount;
+        args[slot * MAX_ARGS] = a;
+        args[slot * MAX_ARGS + 1] = b;
+        args[slot * MAX_ARGS + 2] = c;
+        head = head + 1 == CAPACITY ? 0 : head + 1;
+        size++;
+    }
+
+    // Runs on the writer thread, formatting records and writing them to the
+    // DataLog.
+    private static void drain() {
+        final StringBuilder builder = new StringBuilder();
+        final double[] recordArgs = new double[MAX_ARGS];
+        long reportedDrops = 0;
+
+        while (true) {
+            long time;
+            Level level;
+            String template;
+            int argCount;
+            long drops;
+            synchronized (Log.class) {
+                drops = dropped;
+                if (size == 0) {
+                    time = 0;
+                    level = null;
+                    template = null;
+                    argCount = 0;
+                } else {
+                    int slot = head - size;
+                    if (slot < 0)
+                        slot += CAPACITY;
+                    time = times[slot];
+                    level = levels[slot];
+                    template = templates[slot];
+                    argCount = argCounts[slot];
+                    System.arraycopy(args, slot * MAX_ARGS, recordArgs, 0, MAX_ARGS);
+                    templates[slot] = null;
+                    size--;
+                }
+            }
+
+            if (drops != reportedDrops) {
+                entry.append("[WARN] log buffer full, dropped " + (drops - reportedDrops) + " records");
+                reportedDrops = drops;
+            }
+            if (template == null) {
+                try {
+                    Thread.sleep(DRAIN_PERIOD);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                continue;
+            }
+
+            builder.setLength(0);
+            builder.append('[').append(level).append("] ");
+            format(builder, template, recordArgs, argCount);
+            entry.append(builder.toString(), time);
+        }
+    }
+
+    // Appends the template with each "{}" replaced by the next argument.
+    private static void format(StringBuilder builder, String template, double[] recordArgs, int argCount) {
+        int arg = 0;
+        int start = 0;
+        while (true) {
+            final int placeholder = template.indexOf("{}", start);
+            if (placeholder == -1 || arg == argCount) {
+                builder.append(template, start, template.length());
+                break;
+            }
+            builder.append(template, start, placeholder).append(recordArgs[arg++]);
+            start = placeholder + 2;
+        }
+        // numbers without a placeholder go at the end
+        for (; arg < argCount; arg++)
+            builder.append(' ').append(recordArgs[arg]);
+    }
+}
@@ -0,0 +1,100 @@
+package frc.robot.Core;
+
+import edu.wpi.first.wpilibj.TimedRobot;
+
+/**
+ * LoopClock measures how long each loop actually took, once per loop, so
+ * every controller solves with the same real dt instead of assuming 20 ms.
+ * It also counts overruns and keeps jitter statistics, which are published
+ * under /SmartDashboard/LoopClock.
+ */
+public class LoopClock {
+    public static final double NOMINAL_DT = TimedRobot.kDefaultPeriod;
+    // A loop this much longer than nominal counts as an overrun.
+    static final double OVERRUN_THRESHOLD = NOMINAL_DT * 1.1;
+    // Limits dt so one long stall doesn't wind up the integral terms.
+    static final double MIN_DT = 0.001;
+    static final double MAX_DT = NOMINAL_DT * 5;
+
+    private static double lastTime = Double.NaN;
+    private static double dt = NOMINAL_DT;
+
+    private static long ticks = 0;
+    private static long overruns = 0;
+    private static double maxDt = 0;
+    // Running mean and sum of squared differences of dt, using Welford's method.
+    private static double meanDt = 0;
+    private static double squaredDiffs = 0;
+
+    // Measures the time since the last tick. Called once at the start of every
+    // loop, after InputLog.tick so a replay measures the same dt as the match.
+    public static void tick() {
+        final double now = InputLog.getTickTime();
+        // the first tick has nothing to measure against
+        final double measured = Double.isNaN(lastTime) ? NOMINAL_DT : now - lastTime;
+        lastTime = now;
+        dt = Math.max(MIN_DT, Math.min(MAX_DT, measured));
+
+        ticks++;
+        if (measured > OVERRUN_THRESHOLD)
+            overruns++;
+        if (measured > maxDt)
+            maxDt = measured;
+        final double delta = measured - meanDt;
+        meanDt += delta / ticks;
+        squaredDiffs += delta * (measured - meanDt);
+
+        Telemetry.putNumber("LoopClock/Overruns", overruns);
+        Telemetry.putNumber("LoopClock/Jitter", getJitter());
+        Telemetry.putNumber("LoopClock/Max dt", maxDt);
+    }
+
+    /**
+     * Gets the time the last loop took, limited to a sane range.
+     *
+     * @return The time in seconds.
+     */
+    public static double getDt() {
+        return dt;
+    }
+
+    /**
+     * Gets the time of the last tick, so a whole loop shares one timestamp.
+     *
+     * @return The time since power on in seconds, NaN before the first tick.
+     */
+    public static double getTime() {
+        return lastTime;
+    }
+
+    public static long getTicks() {
+        return ticks;
+    }
+
+    // The number of loops that took more than 10% longer than nominal.
+    public static long getOverruns() {
+        return overruns;
+    }
+
+    public static double getMaxDt() {
+        return maxDt;
+    }
+
+    public static double getMeanDt() {
+        return meanDt;
+    }
+
+    // The standard deviation of the loop time in seconds.
+    public static double getJitter() {
+        return ticks < 2 ? 0 : Math.sqrt(squaredDiffs / (ticks - 1));
+    }
+
+    // Clears the statistics, the measured dt is kept.
+    public static void resetStats() {
+        ticks = 0;
+        overruns = 0;
+        maxDt = 0;
+        meanDt = 0;
+        squaredDiffs = 0;
+    }
+}
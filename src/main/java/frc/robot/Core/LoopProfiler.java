@@ -0,0 +1,80 @@
+package frc.robot.Core;
+
+import java.util.ArrayList;
+
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.WrapperCommand;
+
+/**
+ * LoopProfiler keeps a LoopTimer for every profiled section of the loop and
+ * publishes their p50, p99 and max to NetworkTables about once a second, under
+ * /Profiler/<name> as [p50, p99, max, count] with the times in milliseconds.
+ * Each publish covers the times since the last one.
+ */
+public class LoopProfiler {
+    private static final double PUBLISH_PERIOD = 1.0;
+
+    private static final NetworkTable table = NetworkTableInstance.getDefault().getTable("Profiler");
+    private static final ArrayList<LoopTimer> timers = new ArrayList<>();
+    private static final ArrayList<DoubleArrayPublisher> publishers = new ArrayList<>();
+    private static final double[] values = new double[4];
+    private static double lastPublishTime = 0;
+
+    /**
+     * Gets the timer for a section, creating it the first time.
+     *
+     * @param name The name of the section, shown on NetworkTables.
+     * @return The timer, keep it in a field and call begin() and end() around
+     *         the section.
+     */
+    public static LoopTimer timer(String name) {
+        for (LoopTimer timer : timers) {
+            if (timer.name.equals(name))
+                return timer;
+        }
+        var timer = new LoopTimer(name);
+        timers.add(timer);
+        publishers.add(table.getDoubleArrayTopic(name).publish());
+        return timer;
+    }
+
+    /**
+     * Wraps a command so each of its execute() calls is timed.
+     *
+     * @param name    The name of the section.
+     * @param command The command to wrap.
+     * @return The wrapped command.
+     */
+    public static Command profile(String name, Command command) {
+        final LoopTimer timer = timer(name);
+        return new WrapperCommand(command) {
+            @Override
+            public void execute() {
+                timer.begin();
+                m_command.execute();
+                timer.end();
+            }
+        };
+    }
+
+    // Publishes the timers if a second has passed. Called once per loop.
+    public static void publish() {
+        final double now = Time.getTimeSincePower();
+        if (now - lastPublishTime < PUBLISH_PERIOD)
+            return;
+        lastPublishTime = now;
+
+        for (int i = 0; i < timers.size(); i++) {
+            final LoopTimer timer = timers.get(i);
+            values[0] = timer.getPercentile(0.5) / 1e6;
+            values[1] = timer.getPercentile(0.99) / 1e6;
+            values[2] = timer.getMax() / 1e6;
+            values[3] = timer.getCount();
+            publishers.get(i).set(values);
+            timer.reset();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package frc.robot.Core;
+
+import java.util.Arrays;
+
+/**
+ * LoopTimer times one section of the loop, like a subsystem's periodic, and
+ * keeps a histogram of how long it took. The histogram has log-spaced buckets
+ * with 8 sub-buckets per power of two, so any time is stored within 12.5%,
+ * and recording never allocates.
+ */
+public class LoopTimer {
+    // Times under this many nanoseconds get a bucket each.
+    private static final int LINEAR_BUCKETS = 16;
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = LINEAR_BUCKETS + (63 - 4) * SUB_BUCKETS + SUB_BUCKETS;
+
+    public final String name;
+
+    private final int[] counts = new int[BUCKETS];
+    private int count = 0;
+    private long max = 0;
+    private long startTime = 0;
+
+    LoopTimer(String name) {
+        this.name = name;
+    }
+
+    // Starts timing the section.
+    public void begin() {
+        startTime = System.nanoTime();
+    }
+
+    // Stops timing the section and records how long it took.
+    public void end() {
+        record(System.nanoTime() - startTime);
+    }
+
+    /**
+     * Records a time directly.
+     *
+     * @param nanos The time in nanoseconds.
+     */
+    public void record(long nanos) {
+        if (nanos < 0)
+            nanos = 0;
+        counts[bucket(nanos)]++;
+        count++;
+        if (nanos > max)
+            max = nanos;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Gets a percentile of the recorded times.
+     *
+     * @param percentile The percentile, from 0 to 1.
+     * @return The time in nanoseconds, or 0 if nothing was recorded.
+     */
+    public long getPercentile(double percentile) {
+        if (count == 0)
+            return 0;
+        final long target = Math.max(1, (long) Math.ceil(percentile * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= target)
+                // the middle of the bucket, never more than the real max
+                return Math.min(max, (lowerBound(i) + lowerBound(i + 1)) / 2);
+        }
+        return max;
+    }
+
+    // Clears the recorded times.
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        max = 0;
+    }
+
+    private static int bucket(long nanos) {
+        if (nanos < LINEAR_BUCKETS)
+            return (int) nanos;
+        final int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        final int sub = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_BUCKETS + (exponent - 4) * SUB_BUCKETS + sub;
+    }
+
+    private static long lowerBound(int bucket) {
+        if (bucket < LINEAR_BUCKETS)
+            return bucket;
+        final int exponent = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + 4;
+        final int sub = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub) << (exponent - SUB_BUCKET_BITS);
+    }
+}
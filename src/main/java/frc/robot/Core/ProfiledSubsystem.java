@@ -0,0 +1,38 @@
+package frc.robot.Core;
+
+import edu.wpi.first.wpilibj2.command.SubsystemBase;
+
+/**
+ * ProfiledSubsystem times every periodic call with a LoopTimer, so each
+ * subsystem doesn't have to begin and end its own. Subclasses put their
+ * periodic work in profiledPeriodic, the timer is ended even if it returns
+ * early or throws.
+ */
+public abstract class ProfiledSubsystem extends SubsystemBase {
+    private LoopTimer profiler;
+
+    /**
+     * Gets the name the periodic is profiled under. Read on the first
+     * periodic, once the subclass is constructed.
+     *
+     * @return The name of the timer, the subsystem's name by default.
+     */
+    protected String getProfilerName() {
+        return getName();
+    }
+
+    @Override
+    public final void periodic() {
+        if (profiler == null)
+            profiler = LoopProfiler.timer(getProfilerName());
+        profiler.begin();
+        try {
+            profiledPeriodic();
+        } finally {
+            profiler.end();
+        }
+    }
+
+    // The periodic work of the subsystem, called once per loop.
+    protected abstract void profiledPeriodic();
+}
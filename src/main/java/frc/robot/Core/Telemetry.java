@@ -0,0 +1,173 @@
+package frc.robot.Core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import edu.wpi.first.networktables.BooleanPublisher;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.StringArrayPublisher;
+import edu.wpi.first.networktables.StringPublisher;
+
+/**
+ * Telemetry is a replacement for the SmartDashboard put methods. Values are
+ * published to the same /SmartDashboard topics, but each topic keeps its
+ * publisher, values that didn't change are never sent, and each topic is sent
+ * at most once per period. The put methods only store the value, flush()
+ * sends everything that is due once per loop.
+ */
+public class Telemetry {
+    private static final NetworkTable table = NetworkTableInstance.getDefault().getTable("SmartDashboard");
+    private static final HashMap<String, Topic> topics = new HashMap<>();
+    private static final ArrayList<Topic> topicList = new ArrayList<>();
+    private static double defaultPeriod = 0.1;
+
+    private static abstract class Topic {
+        double period = defaultPeriod;
+        double lastSendTime = Double.NEGATIVE_INFINITY;
+        boolean dirty = false;
+
+        abstract void send();
+    }
+
+    private static class NumberTopic extends Topic {
+        final DoublePublisher publisher;
+        double value;
+        double sent = Double.NaN;
+
+        NumberTopic(String key) {
+            publisher = table.getDoubleTopic(key).publish();
+        }
+
+        void send() {
+            publisher.set(value);
+            sent = value;
+        }
+    }
+
+    private static class BooleanTopic extends Topic {
+        final BooleanPublisher publisher;
+        boolean value;
+        Boolean sent = null;
+
+        BooleanTopic(String key) {
+            publisher = table.getBooleanTopic(key).publish();
+        }
+
+        void send() {
+            publisher.set(value);
+            sent = value;
+        }
+    }
+
+    private static class StringTopic extends Topic {
+        final StringPublisher publisher;
+        String value;
+        String sent = null;
+
+        StringTopic(String key) {
+            publisher = table.getStringTopic(key).publish();
+        }
+
+        void send() {
+            publisher.set(value);
+            sent = value;
+        }
+    }
+
+    private static class StringArrayTopic extends Topic {
+        final StringArrayPublisher publisher;
+        String[] value;
+        String[] sent = null;
+
+        StringArrayTopic(String key) {
+            publisher = table.getStringArrayTopic(key).publish();
+        }
+
+        void send() {
+            publisher.set(value);
+            sent = value;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Topic> T get(String key, Class<T> type) {
+        var topic = topics.get(key);
+        if (topic == null) {
+            if (type == NumberTopic.class)
+                topic = new NumberTopic(key);
+            else if (type == BooleanTopic.class)
+                topic = new BooleanTopic(key);
+            else if (type == StringTopic.class)
+                topic = new StringTopic(key);
+            else
+                topic = new StringArrayTopic(key);
+            topics.put(key, topic);
+            topicList.add(topic);
+        } else if (topic.getClass() != type) {
+            throw new IllegalArgumentException("Telemetry key " + key + " was already used with another type");
+        }
+        return (T) topic;
+    }
+
+    public static void putNumber(String key, double value) {
+        var topic = get(key, NumberTopic.class);
+        topic.value = value;
+        // compares the bits so NaN counts as unchanged
+        topic.dirty = Double.doubleToLongBits(value) != Double.doubleToLongBits(topic.sent);
+    }
+
+    public static void putBoolean(String key, boolean value) {
+        var topic = get(key, BooleanTopic.class);
+        topic.value = value;
+        topic.dirty = topic.sent == null || topic.sent != value;
+    }
+
+    public static void putString(String key, String value) {
+        var topic = get(key, StringTopic.class);
+        topic.value = value;
+        topic.dirty = !value.equals(topic.sent);
+    }
+
+    public static void putStringArray(String key, String[] value) {
+        var topic = get(key, StringArrayTopic.class);
+        // copied so a caller changing its array in place is still seen as a
+        // change, only when the contents changed
+        if (!Arrays.equals(value, topic.value))
+            topic.value = value.clone();
+        topic.dirty = !Arrays.equals(topic.value, topic.sent);
+    }
+
+    /**
+     * Sets how often a topic can be sent.
+     *
+     * @param key     The key of a topic that has been put.
+     * @param seconds The minimum time between two sends.
+     */
+    public static void setPeriod(String key, double seconds) {
+        var topic = topics.get(key);
+        if (topic == null)
+            throw new IllegalArgumentException("Telemetry key " + key + " has not been put");
+        topic.period = seconds;
+    }
+
+    // Sets the period of topics created from now on.
+    public static void setDefaultPeriod(double seconds) {
+        defaultPeriod = seconds;
+    }
+
+    // Sends every changed value whose period has passed. Called once per loop.
+    public static void flush() {
+        final double now = Time.getTimeSincePower();
+        for (int i = 0; i < topicList.size(); i++) {
+            final Topic topic = topicList.get(i);
+            if (topic.dirty && now - topic.lastSendTime >= topic.period) {
+                topic.send();
+                topic.dirty = false;
+                topic.lastSendTime = now;
+            }
+        }
+    }
+}
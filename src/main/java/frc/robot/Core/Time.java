@@ -2,10 +2,12 @@ package frc.robot.Core;
 
 import edu.wpi.first.wpilibj.Timer;
 import frc.robot.Util.Lambda;
-import frc.robot.Util.Promise;
 
 public class Time {
     public static double getTimeSincePower() {
+        // a replay runs on the time of the match
+        if (InputLog.isReplaying())
+            return InputLog.getTickTime();
         return Timer.getFPGATimestamp();
     }
 
@@ -13,8 +15,28 @@ public class Time {
         return Timer.getMatchTime();
     }
 
-    public static void timeout(Lambda run, double seconds) {
-        var prom = Promise.timeout(seconds);
-        prom.then(run);
+    /**
+     * Runs a callback after a delay.
+     *
+     * @param run     The callback to run.
+     * @param seconds The delay in seconds.
+     * @return A handle that can cancel the timeout.
+     */
+    public static TimerHandle timeout(Lambda run, double seconds) {
+        return Dispatcher.getInstance().timeout(null, run, seconds);
+    }
+
+    /**
+     * Runs a callback after a delay, unless a timeout with the same key is
+     * already pending, in which case that one is returned instead. Safe to call
+     * every tick.
+     *
+     * @param key     The key, compared with equals.
+     * @param run     The callback to run.
+     * @param seconds The delay in seconds.
+     * @return The handle of the new or pending timeout.
+     */
+    public static TimerHandle timeout(Object key, Lambda run, double seconds) {
+        return Dispatcher.getInstance().timeout(key, run, seconds);
     }
 }
@@ -0,0 +1,46 @@
+package frc.robot.Core;
+
+import frc.robot.Util.Lambda;
+
+/**
+ * TimerHandle is returned by Time.timeout and can cancel the timeout before it
+ * runs.
+ */
+public class TimerHandle {
+    final double deadline;
+    final long sequence;
+    final Object key;
+    Lambda callback;
+    boolean cancelled = false;
+    boolean done = false;
+
+    TimerHandle(double deadline, long sequence, Object key, Lambda callback) {
+        this.deadline = deadline;
+        this.sequence = sequence;
+        this.key = key;
+        this.callback = callback;
+    }
+
+    // Stops the callback from running, if it hasn't run yet.
+    public void cancel() {
+        if (done || cancelled)
+            return;
+        cancelled = true;
+        callback = null;
+        Dispatcher.getInstance().cancelled(this);
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    // Whether the callback has run.
+    public boolean isDone() {
+        return done;
+    }
+
+    // The FPGA time the callback runs at, in seconds.
+    public double getDeadline() {
+        return deadline;
+    }
+}
@@ -0,0 +1,44 @@
+package frc.robot.Core;
+
+import frc.robot.Util.Getter;
+import frc.robot.Util.Lambda;
+
+/**
+ * WatchHandle is returned by Dispatcher.watch and can retire the watcher
+ * before its condition is met.
+ */
+public class WatchHandle {
+    final Object owner;
+    Getter<Boolean> condition;
+    Lambda callback;
+    boolean cancelled = false;
+    boolean done = false;
+
+    WatchHandle(Object owner, Getter<Boolean> condition, Lambda callback) {
+        this.owner = owner;
+        this.condition = condition;
+        this.callback = callback;
+    }
+
+    // Stops the watcher, if its condition hasn't been met yet.
+    public void cancel() {
+        if (done || cancelled)
+            return;
+        cancelled = true;
+        condition = null;
+        callback = null;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    // Whether the condition was met and the callback has run.
+    public boolean isDone() {
+        return done;
+    }
+
+    public Object getOwner() {
+        return owner;
+    }
+}
@@ -1,5 +1,6 @@
 package frc.robot.Devices;
 
+import com.ctre.phoenix6.StatusSignal;
 import com.ctre.phoenix6.configs.CANcoderConfiguration;
 import com.ctre.phoenix6.hardware.CANcoder;
 import com.ctre.phoenix6.signals.AbsoluteSensorRangeValue;
@@ -12,6 +13,7 @@ import frc.robot.Util.AngleMath;
  */
 public class AbsoluteEncoder {
     CANcoder coder; // The CANcoder device representing the absolute encoder.
+    StatusSignal<Double> absolutePosition; // Refreshed once per loop by the SignalHub.
     double zeroReading; // The encoder reading considered as the zero position.
     boolean reversed = false; // Flag indicating if the encoder values should be reversed.
 
@@ -76,6 +78,9 @@ public class AbsoluteEncoder {
         configs.MagnetSensor.AbsoluteSensorRange = AbsoluteSensorRangeValue.Signed_PlusMinusHalf;
         // Apply the configuration to the encoder.
         coder.getConfigurator().apply(configs);
+
+        absolutePosition = coder.getAbsolutePosition();
+        SignalHub.register(bus, absolutePosition);
     }
 
     /**
@@ -90,6 +95,36 @@ public class AbsoluteEncoder {
         // reverse if needed.
         // The returned value is conformed to be within the range of -180 to 180
         // degrees.
-        return AngleMath.conformAngle(reverse(coder.getAbsolutePosition().getValue() * 360.0 - zeroReading));
+        return absVal(absolutePosition.getValue());
+    }
+
+    /**
+     * Converts a raw absolute position into degrees like absVal().
+     * 
+     * @param rotations The raw absolute position in rotations.
+     * @return The adjusted position in degrees, from -180 to 180.
+     */
+    public double absVal(double rotations) {
+        return AngleMath.conformAngle(reverse(rotations * 360.0 - zeroReading));
+    }
+
+    /**
+     * Sets the position of the simulated CANcoder so that absVal() reads an
+     * angle, only used in simulation.
+     * 
+     * @param degrees The angle absVal() should read.
+     */
+    public void setSimAngle(double degrees) {
+        coder.getSimState().setRawPosition((reverse(degrees) + zeroReading) / 360.0);
+    }
+
+    /**
+     * Gets the absolute position signal refreshed by the SignalHub. Other
+     * threads should clone it instead of refreshing it.
+     * 
+     * @return The absolute position signal in rotations.
+     */
+    public StatusSignal<Double> getAbsolutePositionSignal() {
+        return absolutePosition;
     }
 }
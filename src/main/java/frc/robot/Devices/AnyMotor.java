@@ -1,6 +1,7 @@
 package frc.robot.Devices;
 
-import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.Core.LoopClock;
+import frc.robot.Core.ProfiledSubsystem;
 import frc.robot.Util.MathPlus;
 import frc.robot.Util.MotionController;
 
@@ -9,14 +10,17 @@ import frc.robot.Util.MotionController;
  * functionalities.
  * This class should be extended to implement specific types of motors.
  */
-public abstract class AnyMotor extends SubsystemBase {
+public abstract class AnyMotor extends ProfiledSubsystem {
 
     double lastVoltage = 0;
     protected boolean isReversed; // Flag indicating whether the motor's direction is reversed.
 
     MotionController con;
 
-    Double targetSpeed;
+    double targetSpeed;
+    boolean hasTargetSpeed = false;
+    // The slot of the motor in the MotorBank, -1 if it solves its own loop.
+    int bankSlot = -1;
 
     double maxAbsVoltage = 12;
 
@@ -24,8 +28,31 @@ public abstract class AnyMotor extends SubsystemBase {
         maxAbsVoltage = voltage;
     }
 
+    public double getMaxVoltage() {
+        return maxAbsVoltage;
+    }
+
+    // Gets the velocity controller, null if none is set.
+    protected MotionController getVelocityPD() {
+        return con;
+    }
+
     public void setVelocityPD(MotionController con) {
         this.con = con.clone();
+        if (bankSlot != -1)
+            MotorBank.getInstance().setController(this);
+    }
+
+    /**
+     * Moves the velocity loop of this motor into the MotorBank, which solves
+     * every banked motor in one pass. The velocity controller has to be set
+     * first and be a PIDController or a PWIDController.
+     */
+    public void useControllerBank() {
+        if (con == null)
+            throw new Error("Motor Controller not configured to control speed");
+        if (bankSlot == -1)
+            bankSlot = MotorBank.getInstance().add(this);
     }
 
     /**
@@ -37,12 +64,31 @@ public abstract class AnyMotor extends SubsystemBase {
         if (con == null)
             throw new Error("Motor Controller not configured to control speed");
         targetSpeed = isReversed ? -vel : vel;
+        // the motor controller runs the loop when it can, it's solved here
+        // otherwise
+        hasTargetSpeed = !uSetVelocity(targetSpeed);
+    }
+
+    /**
+     * Internal method to run the velocity loop on the motor controller itself.
+     * 
+     * @param vel The target velocity in raw rotations/sec.
+     * @return Whether the motor controller took the velocity, false to solve the
+     *         loop with the MotionController.
+     */
+    protected boolean uSetVelocity(double vel) {
+        return false;
+    }
+
+    @Override
+    protected String getProfilerName() {
+        return "Motor " + getDeviceName();
     }
 
     @Override
-    public void periodic() {
-        final double dTime = 0.02;
-        if (targetSpeed != null) {
+    protected void profiledPeriodic() {
+        final double dTime = LoopClock.getDt();
+        if (hasTargetSpeed && bankSlot == -1) {
             // reversed in setTargetSpeed
             var voltage = con.solve(targetSpeed - uGetVelocity(), dTime);
             voltage = MathPlus.clampAbsVal(voltage, maxAbsVoltage);
@@ -58,6 +104,16 @@ public abstract class AnyMotor extends SubsystemBase {
      */
     public abstract int getID();
 
+    /**
+     * Gets a name unique to the motor among every motor on the robot, the ID
+     * alone can repeat across controller types and CAN buses.
+     *
+     * @return The name of the motor.
+     */
+    protected String getDeviceName() {
+        return getClass().getSimpleName() + " " + getID();
+    }
+
     /**
      * Constructs an AnyMotor with specified reversal status.
      * 
@@ -74,6 +130,20 @@ public abstract class AnyMotor extends SubsystemBase {
      */
     public abstract void setCurrentLimit(int amps);
 
+    /**
+     * Sets whether the motor brakes or coasts when no power is applied.
+     * 
+     * @param enabled Whether to brake.
+     */
+    public abstract void setBrakeMode(boolean enabled);
+
+    /**
+     * Gets the current the motor draws from the battery.
+     * 
+     * @return The supply current in amperes.
+     */
+    public abstract double getCurrent();
+
     /**
      * Internal method to set the voltage of the motor.
      * 
@@ -88,7 +158,9 @@ public abstract class AnyMotor extends SubsystemBase {
      */
     protected abstract double uGetRevs();
 
-    double resetPos = 0; // The position of the encoder when last reset.
+    // The position of the encoder when last reset, volatile as the odometry
+    // thread reads it.
+    volatile double resetPos = 0;
 
     /**
      * Resets the motor encoder to zero.
@@ -108,7 +180,18 @@ public abstract class AnyMotor extends SubsystemBase {
      * @return The number of revolutions.
      */
     public double getRevs() {
-        var pos = uGetRevs() - resetPos;
+        return getRevs(uGetRevs());
+    }
+
+    /**
+     * Converts a raw encoder reading into revolutions, applying the reset
+     * position and reversal like getRevs().
+     * 
+     * @param rawRevs The raw encoder reading in revolutions.
+     * @return The number of revolutions.
+     */
+    public double getRevs(double rawRevs) {
+        var pos = rawRevs - resetPos;
         return (isReversed ? -pos : pos);
     }
 
@@ -150,7 +233,7 @@ public abstract class AnyMotor extends SubsystemBase {
      * @param volts The voltage to be applied.
      */
     public void setVoltage(double volts) {
-        targetSpeed = null;
+        hasTargetSpeed = false;
         volts = isReversed ? -volts : volts;
         volts = MathPlus.clampAbsVal(volts, maxAbsVoltage);
         uSetVoltage(volts);
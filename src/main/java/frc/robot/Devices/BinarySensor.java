@@ -1,30 +1,50 @@
 package frc.robot.Devices;
 
 import edu.wpi.first.wpilibj.DigitalInput;
-import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.Core.InputLog;
+import frc.robot.Core.ProfiledSubsystem;
 
-public class BinarySensor extends SubsystemBase {
+public class BinarySensor extends ProfiledSubsystem {
     DigitalInput input;
     Boolean lastState = false;
     boolean justChanged = false;
     final boolean reversed;
+    // The raw state read this tick, from the input or a replay, 1 when set.
+    private final double[] state = new double[1];
+    private final InputLog.Channel inputLog;
 
     public BinarySensor(int input, boolean reversed) {
         this.input = new DigitalInput(input);
         this.reversed = reversed;
+        this.inputLog = InputLog.input("BinarySensor " + input);
         if (reversed)
             lastState = true;
+        updateState();
     }
 
     public BinarySensor(int input) {
         this(input, false);
     }
 
+    // Reads the state from the input, or from the log when replaying.
+    private void updateState() {
+        if (InputLog.isReplaying()) {
+            final double[] replayed = inputLog.replay();
+            if (replayed != null)
+                state[0] = replayed[0];
+        } else {
+            state[0] = input.get() ? 1 : 0;
+            inputLog.record(state);
+        }
+    }
+
+    // Gets the state read this tick.
     public boolean get() {
+        final boolean raw = state[0] != 0;
         if (reversed)
-            return !input.get();
+            return !raw;
         else
-            return input.get();
+            return raw;
     }
 
     public boolean justChanged() {
@@ -40,7 +60,13 @@ public class BinarySensor extends SubsystemBase {
     }
 
     @Override
-    public void periodic() {
+    protected String getProfilerName() {
+        return "BinarySensor " + input.getChannel();
+    }
+
+    @Override
+    protected void profiledPeriodic() {
+        updateState();
         final boolean s = get();
 
         justChanged = lastState != s;
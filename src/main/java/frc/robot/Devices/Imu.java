@@ -1,10 +1,12 @@
 package frc.robot.Devices;
 
+import com.ctre.phoenix6.StatusSignal;
 import com.ctre.phoenix6.hardware.Pigeon2;
 
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.util.Units;
-import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.Core.InputLog;
+import frc.robot.Core.ProfiledSubsystem;
 
 /**
  * The Imu class encapsulates the Pigeon2 Inertial Measurement Unit (IMU) sensor
@@ -12,8 +14,15 @@ import edu.wpi.first.wpilibj2.command.SubsystemBase;
  * It provides methods to access the yaw, pitch, and roll values of the robot's
  * orientation.
  */
-public class Imu extends SubsystemBase {
+public class Imu extends ProfiledSubsystem {
     private Pigeon2 imu; // The Pigeon2 IMU sensor.
+    // Refreshed once per loop by the SignalHub.
+    private final StatusSignal<Double> yaw;
+    private final StatusSignal<Double> pitch;
+    private final StatusSignal<Double> roll;
+    // The yaw, pitch and roll read this tick, from the signals or a replay.
+    private final double[] inputs = new double[3];
+    private final InputLog.Channel inputLog;
 
     /**
      * Constructor for the Imu class.
@@ -37,6 +46,27 @@ public class Imu extends SubsystemBase {
         // config.configMountPoseRoll(0); // Set the roll (X-axis) orientation offset.
         config.setYaw(90); // Directly set the current yaw position to 90 degrees.
         // config.configEnableCompass(false); // Disable the compass if not used.
+
+        yaw = imu.getYaw();
+        pitch = imu.getPitch();
+        roll = imu.getRoll();
+        SignalHub.register(imu.getNetwork(), yaw, pitch, roll);
+        inputLog = InputLog.input("Imu " + port);
+        updateInputs();
+    }
+
+    // Reads the inputs from the signals, or from the log when replaying.
+    private void updateInputs() {
+        if (InputLog.isReplaying()) {
+            final double[] replayed = inputLog.replay();
+            if (replayed != null)
+                System.arraycopy(replayed, 0, inputs, 0, inputs.length);
+        } else {
+            inputs[0] = yaw.getValue();
+            inputs[1] = pitch.getValue();
+            inputs[2] = roll.getValue();
+            inputLog.record(inputs);
+        }
     }
 
     /**
@@ -45,7 +75,17 @@ public class Imu extends SubsystemBase {
      * @return The current yaw angle in degrees.
      */
     public double getTurnAngle() {
-        return imu.getYaw().getValue(); // Retrieve the yaw value from the IMU sensor.
+        return inputs[0]; // The yaw read from the IMU sensor this tick.
+    }
+
+    /**
+     * Gets the yaw signal refreshed by the SignalHub. Other threads should clone
+     * it instead of refreshing it.
+     * 
+     * @return The yaw signal in degrees.
+     */
+    public StatusSignal<Double> getYawSignal() {
+        return yaw;
     }
 
     public Rotation2d getRotation2d() {
@@ -58,7 +98,7 @@ public class Imu extends SubsystemBase {
      * @return The current pitch angle in degrees.
      */
     public double getPitch() {
-        return imu.getPitch().getValue(); // Retrieve the pitch value from the IMU sensor.
+        return inputs[1]; // The pitch read from the IMU sensor this tick.
     }
 
     /**
@@ -67,7 +107,7 @@ public class Imu extends SubsystemBase {
      * @return The current roll angle in degrees.
      */
     public double getRoll() {
-        return imu.getRoll().getValue(); // Retrieve the roll value from the IMU sensor.
+        return inputs[2]; // The roll read from the IMU sensor this tick.
     }
 
     /**
@@ -82,12 +122,22 @@ public class Imu extends SubsystemBase {
         imu.setYaw(val);
     }
 
+    /**
+     * Turns the simulated Pigeon2, only used in simulation.
+     * 
+     * @param degrees The change in yaw in degrees.
+     */
+    public void addSimYaw(double degrees) {
+        imu.getSimState().addYaw(degrees);
+    }
+
     private Double lastReading;
     private double yawDeltaThisTick;
 
     @Override
-    public void periodic() {
-        double currentReading = imu.getYaw().getValue();
+    protected void profiledPeriodic() {
+        updateInputs();
+        double currentReading = inputs[0];
         if (lastReading == null)
             lastReading = currentReading;
         yawDeltaThisTick = currentReading - lastReading;
@@ -1,20 +1,23 @@
 package frc.robot.Devices;
 
-import edu.wpi.first.math.util.Units;
+import edu.wpi.first.networktables.DoubleArraySubscriber;
 import edu.wpi.first.networktables.NetworkTable;
 import edu.wpi.first.networktables.NetworkTableEntry;
 import edu.wpi.first.networktables.NetworkTableInstance;
-import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import edu.wpi.first.networktables.PubSubOption;
+import edu.wpi.first.networktables.TimestampedDoubleArray;
 import frc.robot.Auto.Position;
+import frc.robot.Core.InputLog;
+import frc.robot.Core.ProfiledSubsystem;
 import frc.robot.Util.Vector2;
 
-public class LimeLight extends SubsystemBase {
+public class LimeLight extends ProfiledSubsystem {
     private NetworkTable masterTable;
     private NetworkTableEntry tx;
     private NetworkTableEntry ty;
     private NetworkTableEntry ta;
     private NetworkTableEntry tv;
-    private NetworkTableEntry botpose;
+    private DoubleArraySubscriber botpose;
     private boolean camEnabled;
 
     // NOTE: this assumes the limelight is called "limelight" which is not true for
@@ -29,9 +32,18 @@ public class LimeLight extends SubsystemBase {
         ty = masterTable.getEntry("ty");
         ta = masterTable.getEntry("ta");
         tv = masterTable.getEntry("tv");
-        botpose = masterTable.getEntry("botpose");
+        // sendAll and the poll storage keep every frame published between two
+        // ticks instead of only the newest one
+        botpose = masterTable.getDoubleArrayTopic("botpose").subscribe(NO_BOTPOSE,
+                PubSubOption.sendAll(true),
+                PubSubOption.keepDuplicates(true),
+                PubSubOption.pollStorage(QUEUE_SIZE));
+        for (int i = 0; i < QUEUE_SIZE; i++)
+            frames[i] = new LimeLightFrame();
 
         camEnabled = true;
+        inputLog = InputLog.input("LimeLight " + limelightHostname);
+        profilerName = "LimeLight " + limelightHostname;
     }
     
     public void setLEDState(int function){
@@ -39,22 +51,124 @@ public class LimeLight extends SubsystemBase {
         masterTable.getEntry("ledMode").setNumber(function);
     }
 
-    boolean botPoseChanged = false;
-    long lastBotPoseChangeTime = 0;
+    // The most frames kept from one tick, the Limelight publishes far fewer.
+    static final int QUEUE_SIZE = 16;
+    private static final double[] NO_BOTPOSE = new double[0];
+
+    // The frames received during the last tick, oldest first.
+    private final LimeLightFrame[] frames = new LimeLightFrame[QUEUE_SIZE];
+    private int frameCount = 0;
+    private long sequence = 0;
+    private long droppedFrames = 0;
+    // The newest frame ever received, the getters read from it.
+    private final LimeLightFrame frame = new LimeLightFrame();
 
     public boolean botPoseChanged() {
-        return botPoseChanged;
+        return frameCount > 0;
+    }
+
+    /**
+     * Gets the newest botpose reading. The frame is reused and overwritten when
+     * a new botpose arrives.
+     */
+    public LimeLightFrame getFrame() {
+        return frame;
+    }
+
+    // The number of frames received during the last tick.
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Gets a frame received during the last tick. The frames are reused every
+     * tick.
+     *
+     * @param index The index of the frame, 0 being the oldest.
+     */
+    public LimeLightFrame getFrame(int index) {
+        if (index < 0 || index >= frameCount)
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for limelight frames.");
+        return frames[index];
+    }
+
+    // The number of frames skipped because more than QUEUE_SIZE arrived in one
+    // tick.
+    public long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    // The values recorded for each frame: the receive time and the botpose.
+    private static final int FRAME_INPUTS = 1 + LimeLightFrame.BOTPOSE_LENGTH;
+    // The frames received this tick, as the number skipped followed by the
+    // values of each frame.
+    private final double[] inputs = new double[1 + QUEUE_SIZE * FRAME_INPUTS];
+    private final double[] replayBotpose = new double[LimeLightFrame.BOTPOSE_LENGTH];
+    private final InputLog.Channel inputLog;
+
+    private final String profilerName;
+
+    @Override
+    protected String getProfilerName() {
+        return profilerName;
+    }
+
+    protected void profiledPeriodic() {
+        if (InputLog.isReplaying())
+            replayFrames();
+        else
+            readFrames();
+        if (frameCount > 0)
+            frame.set(frames[frameCount - 1]);
     }
 
-    public void periodic() {
-        if (botpose.getLastChange() != lastBotPoseChangeTime) {
-            botPoseChanged = true;
-            lastBotPoseChangeTime = botpose.getLastChange();
-        } else {
-            botPoseChanged = false;
+    private void readFrames() {
+        final TimestampedDoubleArray[] queue = botpose.readQueue();
+        frameCount = Math.min(queue.length, QUEUE_SIZE);
+        final int skipped = queue.length - frameCount;
+        droppedFrames += skipped;
+        sequence += skipped;
+        inputs[0] = skipped;
+        for (int i = 0; i < frameCount; i++) {
+            final TimestampedDoubleArray value = queue[skipped + i];
+            // the server time is 0 until the clocks are synced
+            final long time = value.serverTime != 0 ? value.serverTime : value.timestamp;
+            frames[i].set(value.value, time, ++sequence);
+            recordFrame(i, value.value, time);
         }
+        inputLog.record(inputs, 1 + frameCount * FRAME_INPUTS);
+    }
+
+    // Copies a frame into the inputs, the botpose as the frame decodes it.
+    private void recordFrame(int index, double[] botpose, long time) {
+        final int offset = 1 + index * FRAME_INPUTS;
+        inputs[offset] = time;
+        final boolean isValid = botpose.length >= LimeLightFrame.BOTPOSE_LENGTH;
+        for (int j = 0; j < LimeLightFrame.BOTPOSE_LENGTH; j++)
+            inputs[offset + 1 + j] = isValid ? botpose[j] : 0;
     }
 
+    private void replayFrames() {
+        final double[] replayed = inputLog.replay();
+        // a tick without new frames records no frames, held values are old
+        if (replayed == null || replayed == lastReplayed) {
+            frameCount = 0;
+            return;
+        }
+        lastReplayed = replayed;
+        final int skipped = (int) replayed[0];
+        frameCount = (replayed.length - 1) / FRAME_INPUTS;
+        droppedFrames += skipped;
+        sequence += skipped;
+        for (int i = 0; i < frameCount; i++) {
+            final int offset = 1 + i * FRAME_INPUTS;
+            System.arraycopy(replayed, offset + 1, replayBotpose, 0, replayBotpose.length);
+            frames[i].set(replayBotpose, (long) replayed[offset], ++sequence);
+        }
+    }
+
+    private double[] lastReplayed = null;
+
     public boolean getCamMode() {
         return camEnabled;
     }
@@ -72,10 +186,7 @@ public class LimeLight extends SubsystemBase {
     }
 
     public Position getRobotPosition() {
-        double x = getRobotX();
-        double y = getRobotY();
-        double angle = getRobotYaw();
-        return new Position(angle, new Vector2(x, y));
+        return new Position(frame.yaw, new Vector2(frame.x, frame.y));
     }
 
     // The coordinate system is as follows:
@@ -103,43 +214,35 @@ public class LimeLight extends SubsystemBase {
     // 15. (-3.629533, 0.393065, 1.3208)
     // 16. (-3.629533, -0.392049, 1.3208)
     public double getRobotX() {
-        double[] botposeArray = botpose.getDoubleArray(new double[100]);
-        return Units.metersToInches(botposeArray[0]);
+        return frame.x;
     }
 
     public double getRobotY() {
-        double[] botposeArray = botpose.getDoubleArray(new double[100]);
-        return Units.metersToInches(botposeArray[1]);
+        return frame.y;
     }
 
     public double getRobotZ() {
-        double[] botposeArray = botpose.getDoubleArray(new double[100]);
-        return Units.metersToInches(botposeArray[2]);
+        return frame.z;
     }
 
     public double getRobotRoll() {
-        double[] botposeArray = botpose.getDoubleArray(new double[100]);
-        return botposeArray[3];
+        return frame.roll;
     }
 
     public double getRobotPitch() {
-        double[] botposeArray = botpose.getDoubleArray(new double[100]);
-        return botposeArray[4];
+        return frame.pitch;
     }
 
     public double getRobotYaw() {
-        double[] botposeArray = botpose.getDoubleArray(new double[100]);
-        return botposeArray[5];
+        return frame.yaw;
     }
 
     public double getRobotLatency() {
-        double[] botposeArray = botpose.getDoubleArray(new double[100]);
-        return botposeArray[6];
+        return frame.latency;
     }
 
     public long getLastReceiveTime() {
-        long lastReceiveTime = botpose.getLastChange();
-        return lastReceiveTime;
+        return frame.receiveTime;
     }
 
     public double getVerticalD() {
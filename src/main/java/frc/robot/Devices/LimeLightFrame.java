@@ -0,0 +1,68 @@
+package frc.robot.Devices;
+
+import edu.wpi.first.math.util.Units;
+
+/**
+ * LimeLightFrame holds one decoded botpose reading. The LimeLight reuses a
+ * single frame and overwrites it whenever a new botpose arrives, so the
+ * fields should be copied if they need to be kept.
+ */
+public class LimeLightFrame {
+    // The number of values botpose publishes: x, y, z, roll, pitch, yaw and
+    // latency.
+    static final int BOTPOSE_LENGTH = 7;
+
+    // Position in inches, from the center of the field.
+    public double x;
+    public double y;
+    public double z;
+    // Rotation in degrees.
+    public double roll;
+    public double pitch;
+    public double yaw;
+    // Milliseconds from the image being taken to it being published.
+    public double latency;
+
+    // Counts up by one for every frame the LimeLight receives.
+    public long sequence = 0;
+    // The NetworkTables server time the frame was published at, in
+    // microseconds. The robot is the server, so this is FPGA time.
+    public long receiveTime = 0;
+
+    /**
+     * Decodes a botpose array into this frame. Arrays that are too short leave
+     * the pose all zero, which is treated as no reading.
+     *
+     * @param botpose     The botpose array, in meters and degrees.
+     * @param receiveTime The time the array was received, in microseconds.
+     * @param sequence    The number of the frame.
+     */
+    void set(double[] botpose, long receiveTime, long sequence) {
+        if (botpose.length < BOTPOSE_LENGTH) {
+            x = y = z = roll = pitch = yaw = latency = 0;
+        } else {
+            x = Units.metersToInches(botpose[0]);
+            y = Units.metersToInches(botpose[1]);
+            z = Units.metersToInches(botpose[2]);
+            roll = botpose[3];
+            pitch = botpose[4];
+            yaw = botpose[5];
+            latency = botpose[6];
+        }
+        this.receiveTime = receiveTime;
+        this.sequence = sequence;
+    }
+
+    // Copies every field of another frame into this one.
+    void set(LimeLightFrame other) {
+        x = other.x;
+        y = other.y;
+        z = other.z;
+        roll = other.roll;
+        pitch = other.pitch;
+        yaw = other.yaw;
+        latency = other.latency;
+        receiveTime = other.receiveTime;
+        sequence = other.sequence;
+    }
+}
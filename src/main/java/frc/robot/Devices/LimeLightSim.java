@@ -0,0 +1,61 @@
+package frc.robot.Devices;
+
+import edu.wpi.first.math.util.Units;
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.NetworkTableInstance;
+
+/**
+ * LimeLightSim stands in for a Limelight when there is none. It publishes the
+ * simulated pose to the botpose topic a LimeLight subscribes to, at the
+ * camera's frame rate and with its latency: each pose is published latency
+ * after it was captured, with that latency in the array like the real camera.
+ */
+public class LimeLightSim {
+    private final DoubleArrayPublisher botpose;
+    private final double framePeriod;
+    private final double latencyMs;
+
+    private double nextCaptureTime = Double.NEGATIVE_INFINITY;
+    // The captured frame waiting out its latency.
+    private final double[] pending = new double[LimeLightFrame.BOTPOSE_LENGTH];
+    private double pendingPublishTime = Double.NaN;
+
+    /**
+     * @param limelightHostname The name of the simulated Limelight.
+     * @param frameRate         The frames published per second.
+     * @param latencyMs         Milliseconds from a capture to its publish.
+     */
+    public LimeLightSim(String limelightHostname, double frameRate, double latencyMs) {
+        this.botpose = NetworkTableInstance.getDefault().getTable(limelightHostname)
+                .getDoubleArrayTopic("botpose").publish();
+        this.framePeriod = 1 / frameRate;
+        this.latencyMs = latencyMs;
+    }
+
+    /**
+     * Captures and publishes frames that are due.
+     * 
+     * @param time The current time in seconds.
+     * @param x    The true x position in inches, from the center of the field.
+     * @param y    The true y position in inches, from the center of the field.
+     * @param yaw  The true heading in degrees.
+     */
+    public void update(double time, double x, double y, double yaw) {
+        if (time >= pendingPublishTime) {
+            botpose.set(pending);
+            pendingPublishTime = Double.NaN;
+        }
+        // a new frame is only captured once the last one is published
+        if (Double.isNaN(pendingPublishTime) && time >= nextCaptureTime) {
+            pending[0] = Units.inchesToMeters(x);
+            pending[1] = Units.inchesToMeters(y);
+            pending[2] = 0;
+            pending[3] = 0;
+            pending[4] = 0;
+            pending[5] = yaw;
+            pending[6] = latencyMs;
+            pendingPublishTime = time + latencyMs / 1000;
+            nextCaptureTime = time + framePeriod;
+        }
+    }
+}
@@ -1,23 +1,142 @@
 package frc.robot.Devices.Motor;
 
 import frc.robot.Devices.AnyMotor;
+import frc.robot.Util.MotionController;
 
+/**
+ * MotorGroup drives several motors as one mechanism. By default every motor is
+ * given the same setpoints. A group made with withFollowers has the other
+ * Talons follow the leader in hardware, so only the leader is sent setpoints
+ * and runs a velocity loop.
+ */
 public class MotorGroup {
     AnyMotor[] motors;
+    // The motors given setpoints, only the leader when the rest follow it.
+    AnyMotor[] driven;
 
     public MotorGroup(AnyMotor... motors) {
+        this(motors, motors);
+    }
+
+    private MotorGroup(AnyMotor[] motors, AnyMotor[] driven) {
+        if (motors.length == 0)
+            throw new IllegalArgumentException("A motor group needs at least one motor");
         this.motors = motors;
+        this.driven = driven;
+    }
+
+    /**
+     * Creates a group where the followers mirror the leader's output in
+     * hardware. Reversed followers oppose the leader when it isn't reversed and
+     * the other way around.
+     * 
+     * @param leader    The Talon given setpoints.
+     * @param followers The Talons that follow it, on the same CAN bus.
+     * @return The group.
+     */
+    public static MotorGroup withFollowers(TalonFX leader, TalonFX... followers) {
+        var motors = new AnyMotor[followers.length + 1];
+        motors[0] = leader;
+        for (int i = 0; i < followers.length; i++) {
+            followers[i].follow(leader);
+            motors[i + 1] = followers[i];
+        }
+        return new MotorGroup(motors, new AnyMotor[] { leader });
+    }
+
+    // The first motor, the one the group's position is read from.
+    public AnyMotor getLeader() {
+        return motors[0];
+    }
+
+    public boolean hasFollowers() {
+        return driven.length != motors.length;
     }
 
     public void setVoltage(double voltage) {
-        for (var motor : motors) {
+        for (var motor : driven) {
             motor.setVoltage(voltage);
         }
     }
 
+    /**
+     * Sets the velocity of the group in rotations/sec.
+     * 
+     * @param vel The target velocity.
+     */
+    public void setVelocity(double vel) {
+        for (var motor : driven) {
+            motor.setVelocity(vel);
+        }
+    }
+
+    public void setVelocityPD(MotionController con) {
+        for (var motor : driven) {
+            motor.setVelocityPD(con);
+        }
+    }
+
+    public void useControllerBank() {
+        for (var motor : driven) {
+            motor.useControllerBank();
+        }
+    }
+
+    public void stop() {
+        for (var motor : driven) {
+            motor.stop();
+        }
+    }
+
+    public void setMaxVoltage(double voltage) {
+        for (var motor : motors) {
+            motor.setMaxVoltage(voltage);
+        }
+    }
+
     public void setCurrentLimit(int ampLimit) {
         for (var motor : motors) {
             motor.setCurrentLimit(ampLimit);
         }
     }
+
+    public void setBrakeMode(boolean enabled) {
+        for (var motor : motors) {
+            motor.setBrakeMode(enabled);
+        }
+    }
+
+    // Resets the encoders of every motor to zero.
+    public void resetEncoder() {
+        for (var motor : motors) {
+            motor.resetEncoder();
+        }
+    }
+
+    /**
+     * Gets the average velocity of the motors, each accounting for its
+     * direction.
+     * 
+     * @return The velocity in rotations/sec.
+     */
+    public double getVelocity() {
+        double total = 0;
+        for (var motor : motors) {
+            total += motor.getVelocity();
+        }
+        return total / motors.length;
+    }
+
+    /**
+     * Gets the total current the motors draw from the battery.
+     * 
+     * @return The supply current in amperes.
+     */
+    public double getCurrent() {
+        double total = 0;
+        for (var motor : motors) {
+            total += motor.getCurrent();
+        }
+        return total;
+    }
 }
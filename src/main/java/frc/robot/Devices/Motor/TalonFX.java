@@ -1,9 +1,23 @@
 package frc.robot.Devices.Motor;
 
+import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.StatusSignal;
 import com.ctre.phoenix6.configs.CurrentLimitsConfigs;
+import com.ctre.phoenix6.configs.Slot0Configs;
+import com.ctre.phoenix6.configs.VoltageConfigs;
+import com.ctre.phoenix6.controls.ControlRequest;
+import com.ctre.phoenix6.controls.DutyCycleOut;
+import com.ctre.phoenix6.controls.Follower;
+import com.ctre.phoenix6.controls.VelocityVoltage;
+import com.ctre.phoenix6.controls.VoltageOut;
 import com.ctre.phoenix6.signals.NeutralModeValue;
+import com.ctre.phoenix6.sim.TalonFXSimState;
 
+import frc.robot.Core.LoopClock;
 import frc.robot.Devices.AnyMotor;
+import frc.robot.Devices.SignalHub;
+import frc.robot.Util.ControllerGains;
+import frc.robot.Util.MotionController;
 
 /**
  * The Falcon class extends the AnyMotor abstract class to provide an interface
@@ -11,8 +25,12 @@ import frc.robot.Devices.AnyMotor;
  */
 public class TalonFX extends AnyMotor {
     private com.ctre.phoenix6.hardware.TalonFX talon; // The Talon FX motor controller object.
+    // Refreshed once per loop by the SignalHub.
+    private final StatusSignal<Double> position;
+    private final StatusSignal<Double> velocity;
 
     final int id; // Unique identifier for the motor controller.
+    final String bus; // The CAN bus the motor controller is on.
 
     /**
      * Retrieves the ID of the motor controller.
@@ -23,6 +41,11 @@ public class TalonFX extends AnyMotor {
         return id;
     }
 
+    @Override
+    protected String getDeviceName() {
+        return "TalonFX " + bus + " " + id;
+    }
+
     /**
      * Sets the current limit for the motor.
      * 
@@ -43,8 +66,47 @@ public class TalonFX extends AnyMotor {
         talon.setNeutralMode(enabled ? NeutralModeValue.Brake : NeutralModeValue.Coast);
     }
 
+    // Only registered with the SignalHub once something reads the current.
+    private StatusSignal<Double> supplyCurrent;
+
+    public double getCurrent() {
+        if (supplyCurrent == null) {
+            supplyCurrent = talon.getSupplyCurrent();
+            SignalHub.register(bus, supplyCurrent);
+        }
+        return supplyCurrent.getValue();
+    }
+
+    /**
+     * Makes this Talon mirror the output of another Talon on the same bus. The
+     * leader's output is already reversed for the leader, so the follower
+     * opposes it when exactly one of them is reversed. Setting a voltage or
+     * velocity on this motor afterwards stops the following.
+     * 
+     * @param leader The Talon to follow.
+     */
+    public void follow(TalonFX leader) {
+        if (!leader.bus.equals(bus))
+            throw new IllegalArgumentException("Talon " + id + " can't follow Talon " + leader.id
+                    + " on another CAN bus");
+        var request = new Follower(leader.id, leader.isReversed != isReversed);
+        // the follower request is only sent once, so it isn't deduplicated
+        lastRequest = null;
+        talon.setControl(request);
+    }
+
+    /**
+     * Gets the position signal refreshed by the SignalHub. Other threads should
+     * clone it instead of refreshing it.
+     * 
+     * @return The rotor position signal in raw revolutions.
+     */
+    public StatusSignal<Double> getPositionSignal() {
+        return position;
+    }
+
     protected double uGetVelocity() {
-        return talon.getVelocity().getValue();
+        return velocity.getValue();
     }
 
     public TalonFX withMaxVoltage(double voltage) {
@@ -52,6 +114,107 @@ public class TalonFX extends AnyMotor {
         return this;
     }
 
+    private final VelocityVoltage velocityRequest = new VelocityVoltage(0).withSlot(0);
+    private boolean onboardVelocity = false;
+
+    /**
+     * Runs the velocity loop on the Talon at 1 kHz instead of on the roboRIO.
+     * The gains of the velocity controller are uploaded to slot 0 and
+     * setVelocity sends VelocityVoltage requests. The velocity controller has
+     * to be set first and be a PIDController or a PWIDController.
+     */
+    public void useOnboardVelocity() {
+        if (getVelocityPD() == null)
+            throw new Error("Motor Controller not configured to control speed");
+        onboardVelocity = true;
+        uploadVelocityGains();
+    }
+
+    public TalonFX withOnboardVelocity() {
+        useOnboardVelocity();
+        return this;
+    }
+
+    @Override
+    public void setVelocityPD(MotionController con) {
+        super.setVelocityPD(con);
+        if (onboardVelocity)
+            uploadVelocityGains();
+    }
+
+    @Override
+    public void setMaxVoltage(double voltage) {
+        super.setMaxVoltage(voltage);
+        if (onboardVelocity)
+            uploadVelocityGains();
+    }
+
+    private void uploadVelocityGains() {
+        var gains = ControllerGains.of(getVelocityPD());
+        var slot = new Slot0Configs();
+        slot.kP = gains.kP;
+        slot.kI = gains.kI;
+        slot.kD = gains.kD;
+        var config = talon.getConfigurator();
+        config.apply(slot);
+        // the onboard loop isn't clamped by setVoltage
+        var voltage = new VoltageConfigs();
+        voltage.PeakForwardVoltage = getMaxVoltage();
+        voltage.PeakReverseVoltage = -getMaxVoltage();
+        config.apply(voltage);
+    }
+
+    @Override
+    protected boolean uSetVelocity(double vel) {
+        if (!onboardVelocity)
+            return false;
+        if (shouldSend(velocityRequest, vel))
+            sent(talon.setControl(velocityRequest.withVelocity(vel)));
+        return true;
+    }
+
+    // Reused for every write instead of building a request per call.
+    private final VoltageOut voltageRequest = new VoltageOut(0);
+    private final DutyCycleOut dutyCycleRequest = new DutyCycleOut(0);
+
+    // Identical setpoints are resent this often so the Talon never goes long
+    // without hearing from the robot.
+    static final double KEEP_ALIVE = 0.5;
+
+    // The last request sent and its setpoint.
+    private ControlRequest lastRequest = null;
+    private double lastSetpoint = Double.NaN;
+    private double lastSendTime = Double.NaN;
+    private long skippedWrites = 0;
+
+    /**
+     * Checks whether a setpoint has to be sent. Setpoints identical to the last
+     * one sent are skipped until the keep alive runs out.
+     */
+    private boolean shouldSend(ControlRequest request, double setpoint) {
+        final double now = LoopClock.getTime();
+        // NaN times never compare as recent, so those setpoints are always sent
+        if (request == lastRequest && setpoint == lastSetpoint && now - lastSendTime < KEEP_ALIVE) {
+            skippedWrites++;
+            return false;
+        }
+        lastRequest = request;
+        lastSetpoint = setpoint;
+        lastSendTime = now;
+        return true;
+    }
+
+    // Forgets the last setpoint if it didn't reach the Talon, so it's retried.
+    private void sent(StatusCode status) {
+        if (!status.isOK())
+            lastRequest = null;
+    }
+
+    // The number of writes skipped because the setpoint hadn't changed.
+    public long getSkippedWrites() {
+        return skippedWrites;
+    }
+
     /**
      * Constructor for the Falcon motor controller.
      * 
@@ -64,11 +227,16 @@ public class TalonFX extends AnyMotor {
         super(isReversed);
 
         this.id = deviceNumber;
+        this.bus = bus;
 
         this.talon = new com.ctre.phoenix6.hardware.TalonFX(deviceNumber, bus);
 
         talon.setInverted(false);
 
+        position = talon.getPosition();
+        velocity = talon.getVelocity();
+        SignalHub.register(bus, position, velocity);
+
         setCurrentLimit(40);
         resetEncoder();
     }
@@ -94,7 +262,8 @@ public class TalonFX extends AnyMotor {
      * @param volts The desired voltage.
      */
     protected void uSetVoltage(double volts) {
-        talon.setVoltage(volts); // Apply the full voltage if above stall level.
+        if (shouldSend(voltageRequest, volts))
+            sent(talon.setControl(voltageRequest.withOutput(volts)));
     }
 
     /**
@@ -103,13 +272,19 @@ public class TalonFX extends AnyMotor {
      * @return The position of the encoder in revolutions.
      */
     protected double uGetRevs() {
-        return talon.getPosition().getValue();
+        return position.getValue();
+    }
+
+    // The simulated state of the Talon, driven by a TalonFXSim.
+    TalonFXSimState getSimState() {
+        return talon.getSimState();
     }
 
     /**
      * Stops the motor immediately by cutting power.
      */
     public void stop() {
-        talon.stopMotor();
+        if (shouldSend(dutyCycleRequest, 0))
+            sent(talon.setControl(dutyCycleRequest.withOutput(0)));
     }
 }
@@ -0,0 +1,61 @@
+package frc.robot.Devices.Motor;
+
+import com.ctre.phoenix6.sim.TalonFXSimState;
+
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.math.util.Units;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.simulation.DCMotorSim;
+
+/**
+ * TalonFXSim simulates the mechanism a TalonFX drives. Every update it feeds
+ * the voltage the simulated Talon outputs into a DCMotorSim and writes the
+ * resulting rotor position and velocity back into the Talon's SimState, so the
+ * Talon's status signals read like real hardware.
+ *
+ * Positions and velocities are in the Talon's raw direction, the reversal of
+ * the TalonFX wrapper isn't applied.
+ */
+public class TalonFXSim {
+    private final TalonFXSimState state;
+    private final DCMotorSim sim;
+    private final double gearing;
+
+    /**
+     * @param motor            The simulated Talon.
+     * @param gearing          Rotor rotations per mechanism rotation.
+     * @param jKgMetersSquared The moment of inertia of the mechanism.
+     */
+    public TalonFXSim(TalonFX motor, double gearing, double jKgMetersSquared) {
+        this.state = motor.getSimState();
+        this.sim = new DCMotorSim(DCMotor.getFalcon500(1), gearing, jKgMetersSquared);
+        this.gearing = gearing;
+    }
+
+    /**
+     * Steps the mechanism forward.
+     * 
+     * @param dTime The time to simulate in seconds.
+     */
+    public void update(double dTime) {
+        state.setSupplyVoltage(RobotController.getBatteryVoltage());
+        sim.setInputVoltage(state.getMotorVoltage());
+        sim.update(dTime);
+        state.setRawRotorPosition(getPosition() * gearing);
+        state.setRotorVelocity(getVelocity() * gearing);
+    }
+
+    // The mechanism position in rotations.
+    public double getPosition() {
+        return Units.radiansToRotations(sim.getAngularPositionRad());
+    }
+
+    // The mechanism velocity in rotations/sec.
+    public double getVelocity() {
+        return Units.radiansToRotations(sim.getAngularVelocityRadPerSec());
+    }
+
+    public double getCurrent() {
+        return sim.getCurrentDrawAmps();
+    }
+}
@@ -0,0 +1,64 @@
+package frc.robot.Devices;
+
+import java.util.ArrayList;
+
+import frc.robot.Core.LoopClock;
+import frc.robot.Core.ProfiledSubsystem;
+import frc.robot.Util.ControllerBank;
+import frc.robot.Util.MathPlus;
+
+/**
+ * MotorBank runs the velocity loops of every motor that opted in with
+ * AnyMotor.useControllerBank. Each tick it gathers the errors of every motor,
+ * solves them all at once with a ControllerBank and then applies the voltages.
+ */
+public class MotorBank extends ProfiledSubsystem {
+    private static MotorBank instance;
+
+    // Gets the bank, registering it with the scheduler the first time.
+    public static MotorBank getInstance() {
+        if (instance == null)
+            instance = new MotorBank();
+        return instance;
+    }
+
+    private final ControllerBank bank = new ControllerBank();
+    private final ArrayList<AnyMotor> motors = new ArrayList<>();
+
+    private MotorBank() {
+    }
+
+    // Adds a motor, returning its slot.
+    int add(AnyMotor motor) {
+        motors.add(motor);
+        return bank.add(motor.con);
+    }
+
+    // Replaces the controller of a motor, called when its controller changes.
+    void setController(AnyMotor motor) {
+        bank.setController(motor.bankSlot, motor.con);
+    }
+
+    @Override
+    protected void profiledPeriodic() {
+        for (int i = 0; i < motors.size(); i++) {
+            final AnyMotor motor = motors.get(i);
+            if (motor.hasTargetSpeed)
+                // reversed in setTargetSpeed
+                bank.setError(motor.bankSlot, motor.targetSpeed - motor.uGetVelocity());
+            else
+                bank.setInactive(motor.bankSlot);
+        }
+
+        bank.solve(LoopClock.getDt());
+
+        for (int i = 0; i < motors.size(); i++) {
+            final AnyMotor motor = motors.get(i);
+            if (!bank.isActive(motor.bankSlot))
+                continue;
+            final double voltage = MathPlus.clampAbsVal(bank.getOutput(motor.bankSlot), motor.maxAbsVoltage);
+            motor.uSetVoltage(voltage);
+            motor.lastVoltage = motor.isReversed ? -voltage : voltage;
+        }
+    }
+}
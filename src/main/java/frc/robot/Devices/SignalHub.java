@@ -0,0 +1,55 @@
+package frc.robot.Devices;
+
+import java.util.ArrayList;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+
+/**
+ * SignalHub refreshes the status signals of every registered device together,
+ * once per loop. Devices keep their signals and read them with getValue(),
+ * which returns the value from the last refresh without touching the CAN bus.
+ *
+ * Signals are grouped by CAN bus because a single refreshAll call can only
+ * refresh signals from one bus.
+ */
+public class SignalHub {
+    private static final ArrayList<String> buses = new ArrayList<>();
+    private static final ArrayList<ArrayList<BaseStatusSignal>> pending = new ArrayList<>();
+    // The signals of each bus, rebuilt when a signal is registered.
+    private static BaseStatusSignal[][] groups = new BaseStatusSignal[0][];
+
+    /**
+     * Registers signals to be refreshed every loop. The signals are refreshed
+     * once right away so they have a value before the first loop.
+     *
+     * @param bus     The CAN bus the device is on, as given to its constructor.
+     * @param signals The signals to refresh.
+     */
+    public static synchronized void register(String bus, BaseStatusSignal... signals) {
+        int index = buses.indexOf(bus);
+        if (index == -1) {
+            buses.add(bus);
+            pending.add(new ArrayList<>());
+            index = buses.size() - 1;
+        }
+        for (BaseStatusSignal signal : signals)
+            pending.get(index).add(signal);
+
+        var newGroups = new BaseStatusSignal[pending.size()][];
+        for (int i = 0; i < newGroups.length; i++)
+            newGroups[i] = pending.get(i).toArray(new BaseStatusSignal[0]);
+        groups = newGroups;
+
+        BaseStatusSignal.refreshAll(signals);
+    }
+
+    /**
+     * Refreshes every registered signal, one call per CAN bus. Called once at the
+     * start of every loop, before any device is read.
+     */
+    public static void refreshAll() {
+        final BaseStatusSignal[][] groups = SignalHub.groups;
+        for (int i = 0; i < groups.length; i++)
+            BaseStatusSignal.refreshAll(groups[i]);
+    }
+}
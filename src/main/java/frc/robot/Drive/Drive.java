@@ -5,7 +5,8 @@ import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
-import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.Core.LoopClock;
+import frc.robot.Core.ProfiledSubsystem;
 import frc.robot.RobotContainer;
 import frc.robot.Util.AngleMath;
 import frc.robot.Util.DeSpam;
@@ -17,7 +18,7 @@ import frc.robot.Util.Vector2;
  * It manages the coordination of the swerve modules for driving and turning
  * movements.
  */
-public class Drive extends SubsystemBase {
+public class Drive extends ProfiledSubsystem {
     // Swerve modules for each corner of the robot.
     public SwerveModulePD frontLeft;
     protected SwerveModulePD frontRight;
@@ -69,23 +70,56 @@ public class Drive extends SubsystemBase {
         this.kinematics = new SwerveDriveKinematics(
                 new Translation2d[] { new Translation2d(-0.3556, 0.3556), new Translation2d(0.3556, 0.3556),
                         new Translation2d(-0.3556, -0.3556), new Translation2d(0.3556, -0.3556) });
-
+        this.quadrantModules = new SwerveModulePD[] { frontRight, frontLeft, backLeft, backRight };
     }
 
-    Vector2[] moduleTargets; // Targets for each module for driving and turning.
+    // Targets for each module for driving and turning. The vectors are reused
+    // every tick; hasModuleTargets says whether they currently hold a target.
+    final Vector2[] moduleTargets = new Vector2[] { new Vector2(0, 0), new Vector2(0, 0), new Vector2(0, 0),
+            new Vector2(0, 0) };
+    boolean hasModuleTargets = false;
+
+    // Modules in quadrant order (1 to 4), see getTurnVec.
+    private final SwerveModulePD[] quadrantModules;
+
+    // Scratch vector for the translation shared by every module.
+    private final Vector2 goVec = new Vector2(0, 0);
+
+    // Velocity targets in m/s for each module in quadrant order, held between
+    // ticks; hasVelocityTargets says whether they are in use.
+    final double[] moduleVelocities = new double[4];
+    boolean hasVelocityTargets = false;
+
+    public SwerveDriveKinematics getKinematics() {
+        return kinematics;
+    }
 
     public void fromChassisSpeeds(ChassisSpeeds speeds) {
-        if (RobotContainer.isDriveDisabled)
+        setStates(kinematics.toSwerveModuleStates(speeds));
+    }
+
+    /**
+     * Drives each module at a state until power or stopGoPower is called.
+     * 
+     * @param states The states in the order of the kinematics: front left,
+     *               front right, back left, back right. Speeds are in m/s.
+     */
+    public void setStates(SwerveModuleState[] states) {
+        if (RobotContainer.isDriveDisabled) {
             stopGoPower();
-        SwerveModuleState[] states = kinematics.toSwerveModuleStates(speeds);
+            return;
+        }
+        hasModuleTargets = false;
         frontLeft.setTurnTarget(MathUtil.inputModulus(states[0].angle.getDegrees(), -180, 180));
         frontRight.setTurnTarget(MathUtil.inputModulus(states[1].angle.getDegrees(), -180, 180));
         backLeft.setTurnTarget(MathUtil.inputModulus(states[2].angle.getDegrees(), -180, 180));
         backRight.setTurnTarget(MathUtil.inputModulus(states[3].angle.getDegrees(), -180, 180));
-        frontLeft.setVelocity(states[0].speedMetersPerSecond);
-        frontRight.setVelocity(states[1].speedMetersPerSecond);
-        backLeft.setVelocity(states[2].speedMetersPerSecond);
-        backRight.setVelocity(states[3].speedMetersPerSecond);
+        // periodic applies them, so they aren't overwritten with 0 every tick
+        moduleVelocities[0] = states[1].speedMetersPerSecond;
+        moduleVelocities[1] = states[0].speedMetersPerSecond;
+        moduleVelocities[2] = states[2].speedMetersPerSecond;
+        moduleVelocities[3] = states[3].speedMetersPerSecond;
+        hasVelocityTargets = true;
     }
 
     /**
@@ -117,25 +151,20 @@ public class Drive extends SubsystemBase {
         // Normalize the go direction angle.
         goDirectionDeg = AngleMath.conformAngle(goDirectionDeg);
 
-        // Initialize targets for modules if not already set.
-        if (moduleTargets == null)
-            moduleTargets = new Vector2[4];
-
         // Calculate target vectors for each module based on driving and turning
-        // directions.
+        // directions. The translation is the same for every module.
+        goVec.setFromAngleAndMag(goDirectionDeg, goSpeed);
 
         for (int quadrant = 1; quadrant <= 4; quadrant++) {
-            var turnVec = getTurnVec(quadrant).multiply(turnVoltage);
-            var goVec = Vector2.fromAngleAndMag(goDirectionDeg, goSpeed);
-            var vec = goVec.add(turnVec);
-
             // prevents wheels from turning to provide like zero power
             // if (vec.getMagnitude() < 0.1 && moduleTargets[quadrant - 1] != null) {
             // moduleTargets[quadrant - 1] = moduleTargets[quadrant -
             // 1].withMagnitude(0.0001);
             // } else
-            moduleTargets[quadrant - 1] = vec;
+            setTurnVec(moduleTargets[quadrant - 1], quadrant).multiplyInPlace(turnVoltage).addInPlace(goVec);
         }
+        hasModuleTargets = true;
+        hasVelocityTargets = false;
 
         // Normalize voltages so that no module exceeds 12V.
         double largestVoltage = 0;
@@ -144,11 +173,9 @@ public class Drive extends SubsystemBase {
                 largestVoltage = Math.abs(tar.getMagnitude());
         }
         if (largestVoltage > 12) {
-            for (int module = 0; module < 4; module++) {
-                final double fac = 12.0 / largestVoltage;
-                final var tar = moduleTargets[module];
-
-                moduleTargets[module] = tar.withMagnitude(tar.getMagnitude() * fac);
+            final double fac = 12.0 / largestVoltage;
+            for (Vector2 tar : moduleTargets) {
+                tar.multiplyInPlace(fac);
             }
         }
     }
@@ -177,8 +204,20 @@ public class Drive extends SubsystemBase {
      * @return The turning vector for the specified quadrant.
      */
     protected static Vector2 getTurnVec(int quadrant) {
-        var squareSide = 1.0 / Math.sqrt(2);
-        return new Vector2(
+        return setTurnVec(new Vector2(0, 0), quadrant);
+    }
+
+    /**
+     * Writes the turning direction for a wheel in a given quadrant into an
+     * existing vector.
+     * 
+     * @param out      The vector to write into.
+     * @param quadrant The quadrant number.
+     * @return The out vector.
+     */
+    protected static Vector2 setTurnVec(Vector2 out, int quadrant) {
+        final double squareSide = 1.0 / Math.sqrt(2);
+        return out.set(
                 (quadrant == 1 || quadrant == 2) ? -squareSide : squareSide,
                 (quadrant == 2 || quadrant == 3) ? -squareSide : squareSide);
     }
@@ -190,8 +229,9 @@ public class Drive extends SubsystemBase {
 
     // Stops all drive power by setting the go voltage of all modules to zero.
     public void stopGoPower() {
-        moduleTargets = null;
-        for (SwerveModulePD module : new SwerveModulePD[] { frontRight, frontLeft, backLeft, backRight }) {
+        hasModuleTargets = false;
+        hasVelocityTargets = false;
+        for (SwerveModulePD module : quadrantModules) {
             module.setGoVoltage(0);
         }
     }
@@ -200,18 +240,18 @@ public class Drive extends SubsystemBase {
 
     // Updates the swerve modules each tick based on the targets set by the power
     // method.
-    public void periodic() {
+    protected void profiledPeriodic() {
         if (RobotContainer.isDriveDisabled)
             stopGoPower();
 
-        final double dTime = 0.02;
+        final double dTime = LoopClock.getDt();
 
         double error = 0;
         double total = 0;
-        if (moduleTargets != null) {
+        if (hasModuleTargets) {
             // System.out.println("voltage " + moduleTargets[0].getMagnitude());
             int quadrant = 1;
-            for (SwerveModulePD module : new SwerveModulePD[] { frontRight, frontLeft, backLeft, backRight }) {
+            for (SwerveModulePD module : quadrantModules) {
                 final var tar = moduleTargets[quadrant - 1];
                 error += tar.getMagnitude()
                         * (Math.abs(AngleMath.getDeltaReversable(module.getAngle(), tar.getAngleDeg()))
@@ -222,8 +262,8 @@ public class Drive extends SubsystemBase {
         }
 
         int quadrant = 1;
-        for (SwerveModulePD module : new SwerveModulePD[] { frontRight, frontLeft, backLeft, backRight }) {
-            if (moduleTargets != null) {
+        for (SwerveModulePD module : quadrantModules) {
+            if (hasModuleTargets) {
                 var vec = moduleTargets[quadrant - 1];
                 if (error / total < 1 - alignmentThreshold) {
                     module.setGoVoltage(vec.getMagnitude());
@@ -232,7 +272,7 @@ public class Drive extends SubsystemBase {
                 }
                 module.setTurnTarget(vec.getTurnAngleDeg());
             } else {
-                module.setVelocity(0);
+                module.setVelocity(hasVelocityTargets ? moduleVelocities[quadrant - 1] : 0);
             }
             quadrant++;
         }
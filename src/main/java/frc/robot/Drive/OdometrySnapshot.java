@@ -0,0 +1,27 @@
+package frc.robot.Drive;
+
+/**
+ * OdometrySnapshot is a copy of the odometry thread's latest result.
+ * The displacement is the total distance driven since the thread started,
+ * measured in the gyro's frame, so the movement between two snapshots is just
+ * their difference.
+ */
+public class OdometrySnapshot {
+    // Total displacement in inches, rotated by the gyro yaw of each sample.
+    public double x;
+    public double y;
+    // The gyro yaw of the latest sample in degrees.
+    public double yaw;
+    // The FPGA time of the latest sample in seconds.
+    public double time;
+    // The number of samples integrated so far.
+    public long samples;
+
+    public void set(OdometrySnapshot other) {
+        x = other.x;
+        y = other.y;
+        yaw = other.yaw;
+        time = other.time;
+        samples = other.samples;
+    }
+}
@@ -0,0 +1,205 @@
+package frc.robot.Drive;
+
+import java.lang.invoke.VarHandle;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.StatusSignal;
+
+import edu.wpi.first.wpilibj.Threads;
+import frc.robot.Core.Time;
+import frc.robot.Devices.Imu;
+import frc.robot.Util.AngleMath;
+import frc.robot.Util.Vector2;
+
+/**
+ * OdometryThread integrates the swerve modules faster than the main loop.
+ * It wakes whenever the drive bus delivers a new set of module signals,
+ * integrates the movement of the modules in the gyro's frame and publishes the
+ * total through a sequence lock, so the main loop can read it without
+ * blocking.
+ *
+ * The thread uses its own copies of the signals, the SignalHub still refreshes
+ * the originals for the main loop.
+ */
+public class OdometryThread extends Thread {
+    private final SwerveModulePD[] modules;
+    private final double frequency;
+
+    private final StatusSignal<Double>[] goPositions;
+    private final StatusSignal<Double>[] turnPositions;
+    private final StatusSignal<Double>[] coderPositions;
+    // Every signal above, waited on together.
+    private final BaseStatusSignal[] driveSignals;
+    // The Pigeon is on the rio bus, it can't be waited on with the drive bus
+    // signals so it is refreshed after each wake up instead.
+    private final StatusSignal<Double> yaw;
+
+    private volatile boolean running = true;
+    private volatile long failedWaits = 0;
+
+    // Only touched by the odometry thread.
+    private final double[] lastDists;
+    private final Vector2 movement = new Vector2(0, 0);
+    private final Vector2 moduleMovement = new Vector2(0, 0);
+    private final OdometrySnapshot working = new OdometrySnapshot();
+
+    // Published by the odometry thread, the sequence is odd while it writes.
+    private volatile long sequence = 0;
+    private final OdometrySnapshot published = new OdometrySnapshot();
+
+    /**
+     * Constructs the odometry thread. It has to be started with start().
+     *
+     * @param drive     The drive whose modules are integrated.
+     * @param imu       The imu the yaw is read from.
+     * @param frequency The update frequency of the drive signals in hertz.
+     */
+    @SuppressWarnings("unchecked")
+    public OdometryThread(PositionedDrive drive, Imu imu, double frequency) {
+        super("Odometry");
+        setDaemon(true);
+        this.frequency = frequency;
+        // the same order as PositionedDrive
+        modules = new SwerveModulePD[] { drive.frontRight, drive.frontLeft, drive.backLeft, drive.backRight };
+
+        goPositions = new StatusSignal[modules.length];
+        turnPositions = new StatusSignal[modules.length];
+        coderPositions = new StatusSignal[modules.length];
+        driveSignals = new BaseStatusSignal[modules.length * 3];
+        lastDists = new double[modules.length];
+        for (int i = 0; i < modules.length; i++) {
+            goPositions[i] = modules[i].swerve.getGoMotor().getPositionSignal().clone();
+            turnPositions[i] = modules[i].swerve.getTurnMotor().getPositionSignal().clone();
+            coderPositions[i] = modules[i].coder.getAbsolutePositionSignal().clone();
+            driveSignals[i * 3] = goPositions[i];
+            driveSignals[i * 3 + 1] = turnPositions[i];
+            driveSignals[i * 3 + 2] = coderPositions[i];
+        }
+        yaw = imu.getYawSignal().clone();
+
+        BaseStatusSignal.setUpdateFrequencyForAll(frequency, driveSignals);
+        BaseStatusSignal.refreshAll(driveSignals);
+        yaw.refresh();
+        for (int i = 0; i < modules.length; i++)
+            lastDists[i] = getDist(i);
+        working.yaw = yaw.getValue();
+        working.time = Time.getTimeSincePower();
+        publish();
+    }
+
+    @Override
+    public void run() {
+        // run above the main loop so samples are taken on time
+        Threads.setCurrentThreadPriority(true, 1);
+        while (running) {
+            // waits for the next set of drive signals, timing out after two periods
+            var status = BaseStatusSignal.waitForAll(2.0 / frequency, driveSignals);
+            if (!status.isOK()) {
+                failedWaits++;
+                continue;
+            }
+            yaw.refresh();
+            step(getSignalTime());
+            publish();
+        }
+    }
+
+    /**
+     * Gets the time the drive signals were measured, averaged over the
+     * signals. Unlike the time the thread woke up at, it doesn't include the
+     * scheduling jitter of the wake up.
+     *
+     * The signal timestamps are on Phoenix's own clock, only their age is
+     * used, subtracted from the FPGA time so every sample in the pose history
+     * shares the FPGA time base.
+     *
+     * @return The FPGA time in seconds.
+     */
+    private double getSignalTime() {
+        final double now = Time.getTimeSincePower();
+        double latency = 0;
+        for (BaseStatusSignal signal : driveSignals)
+            latency += signal.getTimestamp().getLatency();
+        return now - latency / driveSignals.length;
+    }
+
+    /**
+     * Takes one sample on the calling thread, for when the thread isn't
+     * started. Only the main loop may call it then.
+     */
+    public void sample() {
+        BaseStatusSignal.refreshAll(driveSignals);
+        yaw.refresh();
+        // sampled at the start of the tick, so it shares the tick's time
+        step(Time.getTimeSincePower());
+        publish();
+    }
+
+    /**
+     * Integrates one sample into the working snapshot.
+     *
+     * @param time The time the sample was measured at in seconds.
+     */
+    private void step(double time) {
+        movement.set(0, 0);
+        for (int i = 0; i < modules.length; i++) {
+            final double dist = getDist(i);
+            final double angle = AngleMath.toStandardPosAngle(
+                    modules[i].coder.absVal(coderPositions[i].getValue()));
+            movement.addInPlace(moduleMovement.setFromAngleAndMag(angle, lastDists[i] - dist));
+            lastDists[i] = dist;
+        }
+        final double currentYaw = yaw.getValue();
+        movement.multiplyInPlace(1.0 / modules.length).rotateInPlace(currentYaw);
+
+        working.x += movement.x;
+        working.y += movement.y;
+        working.yaw = currentYaw;
+        working.time = time;
+        working.samples++;
+    }
+
+    private double getDist(int module) {
+        return modules[module].swerve.getGoReading(goPositions[module].getValue(), turnPositions[module].getValue());
+    }
+
+    private void publish() {
+        final long seq = sequence;
+        sequence = seq + 1;
+        // keeps the writes below from moving above the odd sequence
+        VarHandle.storeStoreFence();
+        published.set(working);
+        sequence = seq + 2;
+    }
+
+    /**
+     * Copies the latest result without blocking. Retries only if the thread was
+     * publishing at the same moment.
+     *
+     * @param out The snapshot to write into.
+     * @return The out snapshot.
+     */
+    public OdometrySnapshot read(OdometrySnapshot out) {
+        while (true) {
+            final long before = sequence;
+            if ((before & 1) == 0) {
+                out.set(published);
+                // keeps the reads above from moving below the second sequence read
+                VarHandle.loadLoadFence();
+                if (sequence == before)
+                    return out;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    // The number of times the drive signals did not arrive in time.
+    public long getFailedWaits() {
+        return failedWaits;
+    }
+
+    // Stops the thread after its current wait.
+    public void shutdown() {
+        running = false;
+    }
+}
@@ -1,5 +1,6 @@
 package frc.robot.Drive;
 
+import frc.robot.Core.InputLog;
 import frc.robot.Util.DeSpam;
 import frc.robot.Util.Vector2;
 
@@ -9,9 +10,18 @@ import frc.robot.Util.Vector2;
  * its swerve modules.
  */
 public class PositionedDrive extends Drive {
-    public Vector2 movementSinceLastTick = new Vector2(0, 0);
+    // Updated in place every tick, copy it if it needs to outlive the tick.
+    public final Vector2 movementSinceLastTick = new Vector2(0, 0);
+    private final Vector2 moduleMovement = new Vector2(0, 0);
 
     private double[][] lastWheelPositions = new double[4][2];
+    // The angle and distance of each wheel this tick, in the order front right,
+    // front left, back left, back right. Read from the modules or a replay.
+    private final double[] wheelInputs = new double[8];
+    private final InputLog.Channel wheelLog = InputLog.input("PositionedDrive/Wheels");
+    // Whether wheelInputs holds a reading yet, a replay may have none at first.
+    private boolean hasWheelInputs = false;
+    private boolean hasLastWheelPositions = false;
 
     public PositionedDrive(SwerveModulePD frontLeft, SwerveModulePD frontRight, SwerveModulePD backLeft,
             SwerveModulePD backRight, double widthInches, double lengthInches) {
@@ -21,32 +31,69 @@ public class PositionedDrive extends Drive {
 
     // used to get the amount each wheel has moved each tick
     public void updateLastWheelPositions() {
-        lastWheelPositions[0] = new double[] { frontRight.getAngle(), frontRight.getDist() };
-        lastWheelPositions[1] = new double[] { frontLeft.getAngle(), frontLeft.getDist() };
-        lastWheelPositions[2] = new double[] { backLeft.getAngle(), backLeft.getDist() };
-        lastWheelPositions[3] = new double[] { backRight.getAngle(), backRight.getDist() };
+        updateWheelInputs();
+        saveLastWheelPositions();
+    }
+
+    // Reads the wheels from the modules, or from the log when replaying.
+    private void updateWheelInputs() {
+        if (InputLog.isReplaying()) {
+            final double[] replayed = wheelLog.replay();
+            if (replayed == null)
+                return;
+            System.arraycopy(replayed, 0, wheelInputs, 0, wheelInputs.length);
+        } else {
+            readWheelInputs();
+            wheelLog.record(wheelInputs);
+        }
+        hasWheelInputs = true;
+    }
+
+    private void saveLastWheelPositions() {
+        if (!hasWheelInputs)
+            return;
+        for (int i = 0; i < 4; i++) {
+            lastWheelPositions[i][0] = wheelInputs[i * 2];
+            lastWheelPositions[i][1] = wheelInputs[i * 2 + 1];
+        }
+        hasLastWheelPositions = true;
+    }
+
+    private void readWheelInputs() {
+        setWheelInput(0, frontRight);
+        setWheelInput(1, frontLeft);
+        setWheelInput(2, backLeft);
+        setWheelInput(3, backRight);
+    }
+
+    private void setWheelInput(int index, SwerveModulePD module) {
+        wheelInputs[index * 2] = module.getAngle();
+        wheelInputs[index * 2 + 1] = module.getDist();
     }
 
     DeSpam dSpam = new DeSpam(0.3);
 
     @Override
-    public void periodic() {
+    protected void profiledPeriodic() {
+        updateWheelInputs();
+        if (!hasLastWheelPositions)
+            saveLastWheelPositions();
 
         // Calculate the distance each wheel has traveled since the last update.
-        double frontRightDist = lastWheelPositions[0][1] - frontRight.getDist();
-        double frontLeftDist = lastWheelPositions[1][1] - frontLeft.getDist();
-        double backLeftDist = lastWheelPositions[2][1] - backLeft.getDist();
-        double backRightDist = lastWheelPositions[3][1] - backRight.getDist();
+        double frontRightDist = lastWheelPositions[0][1] - wheelInputs[1];
+        double frontLeftDist = lastWheelPositions[1][1] - wheelInputs[3];
+        double backLeftDist = lastWheelPositions[2][1] - wheelInputs[5];
+        double backRightDist = lastWheelPositions[3][1] - wheelInputs[7];
 
         // Calculate the robot's movement in inches based on the wheels' contributions.
-        movementSinceLastTick = Vector2.fromAngleAndMag(frontRight.getAngle(), frontRightDist)
-                .add(Vector2.fromAngleAndMag(frontLeft.getAngle(), frontLeftDist))
-                .add(Vector2.fromAngleAndMag(backLeft.getAngle(), backLeftDist))
-                .add(Vector2.fromAngleAndMag(backRight.getAngle(), backRightDist))
-                .multiply(0.25);
+        movementSinceLastTick.setFromAngleAndMag(wheelInputs[0], frontRightDist)
+                .addInPlace(moduleMovement.setFromAngleAndMag(wheelInputs[2], frontLeftDist))
+                .addInPlace(moduleMovement.setFromAngleAndMag(wheelInputs[4], backLeftDist))
+                .addInPlace(moduleMovement.setFromAngleAndMag(wheelInputs[6], backRightDist))
+                .multiplyInPlace(0.25);
 
-        updateLastWheelPositions();
+        saveLastWheelPositions();
 
-        super.periodic();
+        super.profiledPeriodic();
     };
 }
@@ -28,6 +28,7 @@ public class SwerveModule {
         this.turn.setVelocityPD(new PIDController(new PIDConstant(0.001, 0, 0)));
 
         go.setVelocityPD(goController);
+        go.useOnboardVelocity();
 
         // Set current limits on the motors to protect them from drawing too much power.
         turn.setCurrentLimit(35); // The current limit for the turning motor.
@@ -113,4 +114,25 @@ public class SwerveModule {
         // Note: 6.75 motor rotations per 1 wheel rotation, wheel diameter is 3.82
         // inches.
     }
+
+    /**
+     * Gets the distance traveled from raw motor readings, like getGoReading().
+     * Used by the odometry thread, which reads its own copies of the signals.
+     * 
+     * @param goRawRevs   The raw go motor position in revolutions.
+     * @param turnRawRevs The raw turn motor position in revolutions.
+     * @return The distance traveled in inches.
+     */
+    double getGoReading(double goRawRevs, double turnRawRevs) {
+        final double turnCompensation = 3.75 * (turn.getRevs(turnRawRevs) / 12.8);
+        return turnCompensation + go.getRevs(goRawRevs) * inchesPerRotation;
+    }
+
+    TalonFX getGoMotor() {
+        return go;
+    }
+
+    TalonFX getTurnMotor() {
+        return turn;
+    }
 }
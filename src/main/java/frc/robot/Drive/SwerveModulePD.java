@@ -59,7 +59,11 @@ public class SwerveModulePD extends SubsystemBase {
             // If the orientation of the module has changed, update the driving direction.
             if (isFrontFacing != this.frontFacing) {
                 this.frontFacing = isFrontFacing;
-                swerve.setGoVoltage(frontFacing ? voltage : -voltage);
+                // reissues whichever the module was last given with the new sign
+                if (isVelocityMode)
+                    swerve.setGoVelocity(frontFacing ? velocity : -velocity);
+                else
+                    swerve.setGoVoltage(frontFacing ? voltage : -voltage);
             }
 
             // Calculate the voltage correction using the PD controller.
@@ -84,6 +88,8 @@ public class SwerveModulePD extends SubsystemBase {
 
     boolean frontFacing = true; // Indicates if the module is facing the front.
     double voltage = 0; // The voltage applied for driving the module.
+    double velocity = 0; // The velocity the module drives at in m/sec.
+    boolean isVelocityMode = false; // Whether the module is driven by velocity.
 
     /**
      * Sets the driving voltage for the module and applies it based on the current
@@ -93,10 +99,19 @@ public class SwerveModulePD extends SubsystemBase {
      */
     public void setGoVoltage(double volts) {
         voltage = volts;
+        isVelocityMode = false;
         swerve.setGoVoltage(frontFacing ? volts : -volts);
     }
 
+    /**
+     * Sets the driving velocity for the module and applies it based on the
+     * current orientation.
+     *
+     * @param velocity The velocity in m/sec.
+     */
     public void setVelocity(double velocity) {
+        this.velocity = velocity;
+        isVelocityMode = true;
         swerve.setGoVelocity(frontFacing ? velocity : -velocity);
     }
 
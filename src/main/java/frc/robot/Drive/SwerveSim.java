@@ -0,0 +1,112 @@
+package frc.robot.Drive;
+
+import frc.robot.Auto.Position;
+import frc.robot.Devices.Imu;
+import frc.robot.Devices.LimeLightSim;
+import frc.robot.Devices.Motor.TalonFXSim;
+import frc.robot.Util.AngleMath;
+import frc.robot.Util.Vector2;
+
+/**
+ * SwerveSim simulates the drive so the drive and positioning stack can run on
+ * a desktop. It steps a TalonFXSim for every turn and go motor, writes the
+ * module angles into the simulated CANcoders, turns the simulated Pigeon2 and
+ * publishes the true pose through a LimeLightSim.
+ *
+ * The robot moves the way PositionedDrive measures it: the translation is the
+ * average of the module vectors and the rotation is their average along each
+ * module's turning direction. The go motor's coupling with the turn motor
+ * isn't simulated.
+ */
+public class SwerveSim {
+    // Gear ratios and wheel size, matching SwerveModule.
+    static final double TURN_GEARING = 12.8;
+    static final double GO_GEARING = 6.75;
+    static final double WHEEL_CIRCUMFERENCE = 3.82 * Math.PI; // inches
+    // Moments of inertia in kg m^2. The go motors each move a quarter of the
+    // robot's mass.
+    static final double TURN_INERTIA = 0.004;
+    static final double GO_INERTIA = 0.032;
+
+    private final Drive drive;
+    private final Imu imu;
+    private final LimeLightSim limeLight;
+
+    // Modules in quadrant order, see Drive.getTurnVec.
+    private final SwerveModulePD[] modules;
+    private final TalonFXSim[] turnSims = new TalonFXSim[4];
+    private final TalonFXSim[] goSims = new TalonFXSim[4];
+    private final double radius;
+
+    // The true pose, inches from the center of the field and degrees.
+    private final Position pose;
+
+    // Reused every update.
+    private final Vector2 moduleMovement = new Vector2(0, 0);
+    private final Vector2 turnVec = new Vector2(0, 0);
+    private final Vector2 translation = new Vector2(0, 0);
+
+    /**
+     * @param drive     The drive to simulate.
+     * @param imu       The IMU that measures the robot's heading.
+     * @param limeLight The Limelight stand-in to publish the pose through, or
+     *                  null for none.
+     * @param startPos  The pose the robot starts at.
+     */
+    public SwerveSim(Drive drive, Imu imu, LimeLightSim limeLight, Position startPos) {
+        this.drive = drive;
+        this.imu = imu;
+        this.limeLight = limeLight;
+        this.modules = new SwerveModulePD[] { drive.frontRight, drive.frontLeft, drive.backLeft, drive.backRight };
+        for (int i = 0; i < modules.length; i++) {
+            turnSims[i] = new TalonFXSim(modules[i].swerve.getTurnMotor(), TURN_GEARING, TURN_INERTIA);
+            goSims[i] = new TalonFXSim(modules[i].swerve.getGoMotor(), GO_GEARING, GO_INERTIA);
+        }
+        this.radius = Math.sqrt(Math.pow(drive.widthInches / 2, 2) + Math.pow(drive.lengthInches / 2, 2));
+        this.pose = new Position(startPos.angle, new Vector2(startPos.position.x, startPos.position.y));
+    }
+
+    /**
+     * Steps the simulation forward, called once per loop.
+     *
+     * @param time  The current time in seconds.
+     * @param dTime The time since the last update.
+     */
+    public void update(double time, double dTime) {
+        translation.set(0, 0);
+        double turnSpeed = 0;
+        for (int i = 0; i < modules.length; i++) {
+            turnSims[i].update(dTime);
+            goSims[i].update(dTime);
+
+            final double azimuth = AngleMath.conformAngle(turnSims[i].getPosition() * 360);
+            modules[i].coder.setSimAngle(azimuth);
+
+            // PositionedDrive counts a falling go reading as forward movement
+            final double speed = -goSims[i].getVelocity() * WHEEL_CIRCUMFERENCE;
+            moduleMovement.setFromAngleAndMag(AngleMath.toStandardPosAngle(azimuth), speed);
+            translation.addInPlace(moduleMovement);
+            Drive.setTurnVec(turnVec, i + 1);
+            turnSpeed += moduleMovement.x * turnVec.x + moduleMovement.y * turnVec.y;
+        }
+        translation.multiplyInPlace(0.25);
+        // from the linear speed of the modules (in/sec) back into deg/sec
+        final double yawDelta = turnSpeed / 4 / radius * 180 / Math.PI * dTime;
+
+        pose.angle = AngleMath.conformAngle(pose.angle + yawDelta);
+        imu.addSimYaw(yawDelta);
+        translation.rotateInPlace(pose.angle - 90).multiplyInPlace(dTime);
+        pose.position.addInPlace(translation);
+
+        if (limeLight != null)
+            limeLight.update(time, pose.position.x, pose.position.y, pose.angle);
+    }
+
+    /**
+     * Gets the true pose of the simulated robot. The position is updated in
+     * place, copy it if it needs to be kept.
+     */
+    public Position getPose() {
+        return pose;
+    }
+}
@@ -10,10 +10,18 @@ import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
 import edu.wpi.first.units.Measure;
+import edu.wpi.first.wpilibj.DataLogManager;
 import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.Core.InputLog;
+import frc.robot.Core.Log;
+import frc.robot.Core.LoopClock;
+import frc.robot.Core.LoopProfiler;
+import frc.robot.Core.LoopTimer;
+import frc.robot.Core.Telemetry;
+import frc.robot.Devices.SignalHub;
 import frc.robot.Devices.Motor.TalonFX;
 
 public class Robot extends TimedRobot {
@@ -21,16 +29,33 @@ public class Robot extends TimedRobot {
   private Command m_teleopCommand;
 
   private RobotContainer m_robotContainer;
+  private final LoopTimer m_schedulerProfiler = LoopProfiler.timer("Scheduler");
 
   @Override
   public void robotInit() {
+    // started here so nothing starts it implicitly from another thread
+    DataLogManager.start();
+    Log.start(DataLogManager.getLog());
+    // construction is a tick of its own, the devices record or replay their
+    // first inputs at its time
+    InputLog.tick();
     m_robotContainer = new RobotContainer();
-    m_teleopCommand = m_robotContainer.getTeleopCommand();
+    m_teleopCommand = LoopProfiler.profile("Teleop", m_robotContainer.getTeleopCommand());
   }
 
   @Override
   public void robotPeriodic() {
+    // the time and every input of the tick come from the replayed log when
+    // replaying
+    InputLog.tick();
+    LoopClock.tick();
+    // every device reads the values refreshed here for the rest of the loop
+    SignalHub.refreshAll();
+    m_schedulerProfiler.begin();
     CommandScheduler.getInstance().run();
+    m_schedulerProfiler.end();
+    LoopProfiler.publish();
+    Telemetry.flush();
   }
 
   @Override
@@ -100,4 +125,9 @@ public class Robot extends TimedRobot {
   @Override
   public void testExit() {
   }
+
+  @Override
+  public void simulationPeriodic() {
+    m_robotContainer.simulationPeriodic();
+  }
 }
@@ -7,7 +7,7 @@ package frc.robot;
 import com.pathplanner.lib.commands.PathPlannerAuto;
 
 import edu.wpi.first.wpilibj.Joystick;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.wpilibj.RobotBase;
 import edu.wpi.first.wpilibj2.command.Command;
 import frc.robot.Auto.AutoDrive;
 import frc.robot.Auto.FieldPositioning;
@@ -17,6 +17,9 @@ import frc.robot.Auto.Position;
 import frc.robot.Components.Carriage;
 import frc.robot.Components.Elevator;
 import frc.robot.Components.Shooter;
+import frc.robot.Core.InputLog;
+import frc.robot.Core.LoopClock;
+import frc.robot.Core.Telemetry;
 import frc.robot.Core.Time;
 import frc.robot.Devices.BetterPS4;
 import frc.robot.Devices.BinarySensor;
@@ -24,6 +27,7 @@ import frc.robot.Devices.Imu;
 import frc.robot.Devices.LimeLight;
 import frc.robot.Devices.Motor.TalonFX;
 import frc.robot.Drive.PositionedDrive;
+import frc.robot.Drive.SwerveSim;
 import frc.robot.Util.AngleMath;
 import frc.robot.Util.Container;
 import frc.robot.Util.DeSpam;
@@ -51,7 +55,7 @@ public class RobotContainer {
   LimeLight shooterLimeLight = SubsystemInit.shooterLimelight();
   LimeLight intakeLimeLight = SubsystemInit.intakeLimelight();
   FieldPositioning fieldPositioning = SubsystemInit.fieldPositioning(drive, imu, shooterLimeLight, new Vector2(0, 0));
-  PathPlannerDrive autoDrive = SubsystemInit.autoDrive(imu);
+  PathPlannerDrive autoDrive = SubsystemInit.autoDrive(drive, fieldPositioning);
 
   // subsystems
   Shooter shooter = SubsystemInit.shooter();
@@ -60,14 +64,25 @@ public class RobotContainer {
   BinarySensor intakeSensor = SubsystemInit.intakeSensor();
   Carriage carriage = SubsystemInit.carriage(intakeSensor);
 
+  // only exists in simulation, a replay reads its inputs from the log instead
+  SwerveSim swerveSim = RobotBase.isSimulation() && !InputLog.isReplaying()
+      ? SubsystemInit.swerveSim(drive, imu)
+      : null;
+
   public RobotContainer() {
     // initialize auto selector
-    SmartDashboard.putStringArray("Auto List",
+    Telemetry.putStringArray("Auto List",
         new String[] { "left", "right", "no auto", "pathplanner", "commit arson" });
   }
 
   DeSpam dSpam = new DeSpam(0.5);
 
+  // Steps the simulated hardware, called after every loop in simulation.
+  public void simulationPeriodic() {
+    if (swerveSim != null)
+      swerveSim.update(Time.getTimeSincePower(), LoopClock.getDt());
+  }
+
   static Vector2 speakerPosition() {
     Vector2 speakerPosition = new Vector2(SubsystemInit.isRed() ? 337.87 : -337.87, 60);
     return speakerPosition;
@@ -211,16 +226,16 @@ public class RobotContainer {
       }
 
       { // logs
-        SmartDashboard.putNumber("Gyro", fieldPositioning.getTurnAngle());
+        Telemetry.putNumber("Gyro", fieldPositioning.getTurnAngle());
         if (carriage.hasNote()) {
-          SmartDashboard.putString("DB/String 0", "Its inside of me");
+          Telemetry.putString("DB/String 0", "Its inside of me");
         } else {
-          SmartDashboard.putString("DB/String 0", "Out Daddy");
+          Telemetry.putString("DB/String 0", "Out Daddy");
         }
         if (shooter.isSpinning()) {
-          SmartDashboard.putString("DB/String 1", "Shooter Is Spinning");
+          Telemetry.putString("DB/String 1", "Shooter Is Spinning");
         } else {
-          SmartDashboard.putString("DB/String 1", "Shooter Not Spinning");
+          Telemetry.putString("DB/String 1", "Shooter Not Spinning");
         }
 
         // logs field position
@@ -262,25 +277,27 @@ public class RobotContainer {
         .then(() -> Promise.timeout(6));
   }
 
-  void startAuto(boolean startedLeft) {
-
+  AutoDrive createAutoDrive() {
     // dSpam.exec(() -> {
     // System.out
     // .println(
     // fieldPositioning.getPosition() + "correct " + robor.displacement + " "
     // + fieldPositioning.getTurnAngle());
     // });
-    AutoDrive robor = new AutoDrive(fieldPositioning,
+    return new AutoDrive(fieldPositioning,
         new Position(180, fieldPositioning.getPosition().add(new Vector2(0, 0))),
         drive,
         new PDConstant(0.25, 0.02),
         new PDConstant(0.4, 0));
+  }
 
+  // Returns the auto's promise chain, cancel it to stop the auto.
+  Promise startAuto(AutoDrive robor, boolean startedLeft) {
     if (!shooter.isSpinning())
       shooter.toggleSpinning();
 
     // !changed
-    Promise.immediate()
+    return Promise.immediate()
         // .then(() -> robor.moveTo(new Vector2(240, 33)))
         .then(() -> shoot(robor))
         .then(() -> {
@@ -315,7 +332,8 @@ public class RobotContainer {
 
           public void execute() {
             shooter.spin();
-            Time.timeout(() -> {
+            // keyed so calling it every tick doesn't pile up timeouts
+            Time.timeout("commit arson shot", () -> {
               carriage.shoot();
             }, 3);
           }
@@ -326,8 +344,13 @@ public class RobotContainer {
     }
 
     return new Command() {
+      AutoDrive robor;
+      Promise chain;
+
       @Override
       public void initialize() {
+        robor = null;
+        chain = null;
         drive.setAlignmentThreshold(0.2);
         // if we are on the left or right side of the speaker,
         // we want to turn the camera towards it
@@ -339,14 +362,20 @@ public class RobotContainer {
 
       @Override
       public void execute() {
-        if (fieldPositioning.hasGottenLimeLightFrame()) {
-          startAuto(isLeft);
-          cancel();
+        // the chain keeps running until the command ends
+        if (chain == null && fieldPositioning.hasGottenLimeLightFrame()) {
+          robor = createAutoDrive();
+          chain = startAuto(robor, isLeft);
         }
       }
 
       @Override
       public void end(boolean interrupted) {
+        // tears down whatever step the auto was on
+        if (chain != null)
+          chain.cancel();
+        if (robor != null)
+          robor.stop();
         if (shooter.isSpinning())
           shooter.toggleSpinning();
       }
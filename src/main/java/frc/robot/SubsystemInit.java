@@ -1,39 +1,27 @@
 package frc.robot;
 
-import java.util.Optional;
-
-import com.ctre.phoenix6.configs.Slot0Configs;
-import com.ctre.phoenix6.mechanisms.swerve.SwerveModuleConstants;
-import com.ctre.phoenix6.mechanisms.swerve.SwerveModule.ClosedLoopOutputType;
-import com.ctre.phoenix6.mechanisms.swerve.SwerveModuleConstants.SteerFeedbackType;
-import com.pathplanner.lib.auto.AutoBuilder;
-import com.pathplanner.lib.commands.PathPlannerAuto;
-import com.pathplanner.lib.util.HolonomicPathFollowerConfig;
-import com.pathplanner.lib.util.PIDConstants;
-import com.pathplanner.lib.util.ReplanningConfig;
-
-import edu.wpi.first.math.geometry.Pose2d;
-import edu.wpi.first.math.geometry.Translation2d;
-import edu.wpi.first.wpilibj.DriverStation.Alliance;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.Joystick;
-import edu.wpi.first.wpilibj2.command.Subsystem;
-import frc.robot.Auto.AutonomousPositioning;
 import frc.robot.Auto.FieldPositioning;
 import frc.robot.Auto.PathPlannerDrive;
 import frc.robot.Auto.Position;
 import frc.robot.Components.Carriage;
 import frc.robot.Components.Elevator;
 import frc.robot.Components.Shooter;
+import frc.robot.Core.InputLog;
 import frc.robot.Devices.AbsoluteEncoder;
 import frc.robot.Devices.BetterPS4;
 import frc.robot.Devices.BinarySensor;
 import frc.robot.Devices.Imu;
 import frc.robot.Devices.LimeLight;
+import frc.robot.Devices.LimeLightSim;
+import frc.robot.Devices.Motor.MotorGroup;
 import frc.robot.Devices.Motor.TalonFX;
+import frc.robot.Drive.OdometryThread;
 import frc.robot.Drive.PositionedDrive;
 import frc.robot.Drive.SwerveModule;
 import frc.robot.Drive.SwerveModulePD;
+import frc.robot.Drive.SwerveSim;
 import frc.robot.Util.PDConstant;
 import frc.robot.Util.PIDConstant;
 import frc.robot.Util.PIDController;
@@ -111,9 +99,10 @@ public class SubsystemInit {
     }
 
     static Shooter shooter() {
-        Shooter shooter = new Shooter(
+        // the right flywheel follows the left one in hardware
+        Shooter shooter = new Shooter(MotorGroup.withFollowers(
                 new TalonFX(12, false),
-                new TalonFX(10, true));
+                new TalonFX(10, true)));
         return shooter;
 
     }
@@ -123,8 +112,9 @@ public class SubsystemInit {
         TalonFX f1 = new TalonFX(9, false).withMaxVoltage(12);
         TalonFX f2 = new TalonFX(13, true).withMaxVoltage(12);
         var elevator = new Elevator(
-                f1, // left
-                f2, // right
+                MotorGroup.withFollowers(
+                        f1, // left
+                        f2), // right
                 new PIDController(new PIDConstant(0.13, 0.0, 0.0)),
                 elevatorDownSensor);
         return elevator;
@@ -133,12 +123,14 @@ public class SubsystemInit {
     static TalonFX intake() {
         var intake = new TalonFX(14, false);
         intake.setVelocityPD(new PIDController(new PDConstant(0.1, 0.0)));
+        intake.useOnboardVelocity();
         return intake;
     }
 
     static Carriage carriage(BinarySensor intakeSensor) {
         var motor = new TalonFX(11, true);
         motor.setVelocityPD(new PIDController(new PDConstant(0.1, 0.0)));
+        motor.useOnboardVelocity();
         return new Carriage(motor, intakeSensor);
     }
 
@@ -147,12 +139,32 @@ public class SubsystemInit {
         return intakeSensor;
     }
 
+    // Off when the loop runs on a stepped clock, like in the loop benchmark. The
+    // main loop then samples the odometry itself.
+    static boolean useOdometryThread = true;
+
+    static OdometryThread odometry(PositionedDrive drive, Imu imu) {
+        // the drive bus is a CANivore, so the modules can be sampled at 250 Hz
+        OdometryThread odometry = new OdometryThread(drive, imu, 250);
+        // a replay reads the thread's results from the log instead
+        if (useOdometryThread && !InputLog.isReplaying())
+            odometry.start();
+        return odometry;
+    }
+
     static FieldPositioning fieldPositioning(PositionedDrive drive, Imu imu, LimeLight limeLight, Vector2 startPos) {
-        FieldPositioning fieldPositioning = new FieldPositioning(drive, imu, limeLight,
+        FieldPositioning fieldPositioning = new FieldPositioning(drive, imu, limeLight, odometry(drive, imu),
                 new Position(isRed() ? 0 : 180, new Vector2(0, 0)));
         return fieldPositioning;
     }
 
+    static SwerveSim swerveSim(PositionedDrive drive, Imu imu) {
+        // the shooter limelight publishes around 20 frames a second
+        var limeLight = new LimeLightSim("limelight-a", 20, 30);
+        // starts where fieldPositioning assumes the robot starts
+        return new SwerveSim(drive, imu, limeLight, new Position(isRed() ? 0 : 180, new Vector2(0, 0)));
+    }
+
     // input
 
     static BetterPS4 con() {
@@ -165,79 +177,7 @@ public class SubsystemInit {
         return joystick;
     }
 
-    static SwerveModuleConstants configureConstants(int goID, int steerID, boolean steerMotorInverted,
-            boolean goMotorInverted, int canCoderID, double canCoderZero, double gokP, double steerKp) {
-        return new SwerveModuleConstants().withDriveMotorId(goID).withSteerMotorId(steerID)
-                .withSteerMotorInverted(steerMotorInverted)
-                .withCANcoderId(canCoderID).withCANcoderOffset(canCoderZero).withSteerMotorGearRatio(12.8)
-                .withDriveMotorGearRatio(6.75).withWheelRadius(
-                        2)
-                .withDriveMotorGains(new Slot0Configs().withKP(gokP))
-                .withSteerMotorGains(new Slot0Configs().withKP(steerKp))
-                .withFeedbackSource(SteerFeedbackType.SyncCANcoder);
-    }
-
-    static PathPlannerDrive autoDrive(Imu imu) {
-        double goKP = 1;
-        double steerKP = 1;
-        PathPlannerDrive drive = new PathPlannerDrive(
-                new com.ctre.phoenix6.mechanisms.swerve.SwerveModule(
-                        configureConstants(3, 4, true, false, 23, 45.96679, steerKP, goKP),
-                        "drive"),
-                new com.ctre.phoenix6.mechanisms.swerve.SwerveModule(
-                        configureConstants(5, 6, true, false, 24, -99.66796, steerKP, goKP),
-                        "drive"),
-                new com.ctre.phoenix6.mechanisms.swerve.SwerveModule(
-                        configureConstants(1, 2, true, false, 22, -44.64843, steerKP, goKP),
-                        "drive"),
-                new com.ctre.phoenix6.mechanisms.swerve.SwerveModule(
-                        configureConstants(7, 8, true, false, 21, 9.93164, steerKP, goKP),
-                        "drive"),
-                imu);
-        return drive;
-    }
-
-    static void PathPlannerInit(PositionedDrive drive, Imu imu) {
-        Pose2d startPose = PathPlannerAuto.getStaringPoseFromAutoFile("New Auto");
-        AutonomousPositioning resettablePos = new AutonomousPositioning(drive, imu,
-                new Position(startPose.getRotation().getDegrees(), new Vector2(startPose.getX(), startPose.getY())));
-        AutoBuilder.configureHolonomic(
-                () -> resettablePos.getPose2d(), // Robot pose supplier
-                (pos) -> resettablePos.reset(pos), // Method to reset odometry (will be
-                // called if your auto has a
-                // starting
-                // pose)
-                () -> resettablePos.getRobotRelativeSpeeds(), // ChassisSpeeds supplier.
-                // MUST BE ROBOT RELATIVE
-                (speeds) -> drive.fromChassisSpeeds(speeds), // Method that will drive the
-                // robot given ROBOT RELATIVE
-                // ChassisSpeeds
-                new HolonomicPathFollowerConfig( // HolonomicPathFollowerConfig, this should
-                        // likely live in your
-                        // Constants class
-                        new PIDConstants(5.0, 0.0, 0.0), // Translation PID constants
-                        new PIDConstants(5.0, 0.0, 0.0), // Rotation PID constants
-                        4.5, // Max module speed, in m/s
-                        0.7112, // Drive base radius in meters. Distance from robot center to furthest
-                        // module.
-                        new ReplanningConfig(false, false) // Default path replanning config. See the API for the
-                // options here
-                ),
-                () -> {
-                    // Boolean supplier that controls when the path will be mirrored for the red
-                    // alliance
-                    // This will flip the path being followed to the red side of the field.
-                    // THE ORIGIN WILL REMAIN ON THE BLUE SIDE
-
-                    Optional<Alliance> alliance = DriverStation.getAlliance();
-                    if (alliance.isPresent()) {
-                        return alliance.get() == DriverStation.Alliance.Red;
-                    }
-                    return false;
-                },
-                new Subsystem() {
-
-                } // Reference to this subsystem to set requirements
-        );
+    static PathPlannerDrive autoDrive(PositionedDrive drive, FieldPositioning fieldPositioning) {
+        return new PathPlannerDrive(drive, fieldPositioning);
     }
 }
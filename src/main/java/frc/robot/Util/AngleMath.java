@@ -4,6 +4,19 @@ package frc.robot.Util;
  * The AngleMath class provides static utility methods for performing angle
  * calculations,
  * particularly useful in robotics for navigation and orientation tasks.
+ *
+ * The sinDeg, cosDeg and atan2Deg methods can optionally use lookup tables
+ * instead of Math.sin, Math.cos and Math.atan2 (see setUseTrigTable). Both
+ * tables interpolate linearly, which bounds their error as follows:
+ * - sin/cos: 4096 samples per turn, step h = 2pi / 4096 rad. The error is at
+ * most h^2 / 8 = 2.9e-7 (absolute, on a unit vector).
+ * - atan2: 1024 samples of atan over [0, 1], one octant. The error is at most
+ * h^2 / 8 * max|atan''| = 7.7e-8 rad = 4.4e-6 degrees.
+ * For odometry this means a wheel moving 5 inches in one tick picks up at
+ * most 1.5e-6 inches of error, so even if every error over a 150 second match
+ * lined up the drift would stay near 0.01 inches, far below wheel slip. The
+ * table is therefore safe for odometry and control; keep it off where results
+ * must match Math exactly.
  */
 public class AngleMath {
 
@@ -91,6 +104,9 @@ public class AngleMath {
      * @return The normalized angle.
      */
     public static double conformAngle(double angle) {
+        // Most angles are already in range, which skips the division below.
+        if (angle > -180 && angle <= 180)
+            return angle;
         angle %= 360;
         if (angle > 180) {
             angle -= 360;
@@ -123,4 +139,104 @@ public class AngleMath {
         // The conversion is symmetrical, so we can use the same method as toTurnAngle.
         return toTurnAngle(turnAngle);
     }
+
+    // Number of sine samples per full turn, must be a power of two.
+    private static final int SIN_TABLE_SIZE = 4096;
+    // Number of atan samples over the ratio range [0, 1].
+    private static final int ATAN_TABLE_SIZE = 1024;
+
+    // Sine of i / SIN_TABLE_SIZE turns, with one extra sample to interpolate the
+    // last step.
+    private static final double[] sinTable = new double[SIN_TABLE_SIZE + 1];
+    // atan(i / ATAN_TABLE_SIZE) in degrees, with one extra sample.
+    private static final double[] atanTable = new double[ATAN_TABLE_SIZE + 1];
+
+    static {
+        for (int i = 0; i <= SIN_TABLE_SIZE; i++) {
+            sinTable[i] = Math.sin(2 * Math.PI * i / SIN_TABLE_SIZE);
+        }
+        for (int i = 0; i <= ATAN_TABLE_SIZE; i++) {
+            atanTable[i] = Math.toDegrees(Math.atan((double) i / ATAN_TABLE_SIZE));
+        }
+    }
+
+    private static boolean useTrigTable = false;
+
+    /**
+     * Selects the backend used by sinDeg, cosDeg and atan2Deg. See the class
+     * comment for the error bounds of the lookup table.
+     *
+     * @param enabled True to use the lookup tables, false to use Math.
+     */
+    public static void setUseTrigTable(boolean enabled) {
+        useTrigTable = enabled;
+    }
+
+    public static boolean isUsingTrigTable() {
+        return useTrigTable;
+    }
+
+    /**
+     * Computes the sine of an angle.
+     *
+     * @param degrees The angle in degrees.
+     * @return The sine of the angle.
+     */
+    public static double sinDeg(double degrees) {
+        if (useTrigTable)
+            return tableSin(degrees / 360 * SIN_TABLE_SIZE);
+        return Math.sin(conformAngle(degrees) / 360 * (2 * Math.PI));
+    }
+
+    /**
+     * Computes the cosine of an angle.
+     *
+     * @param degrees The angle in degrees.
+     * @return The cosine of the angle.
+     */
+    public static double cosDeg(double degrees) {
+        if (useTrigTable)
+            return tableSin((degrees + 90) / 360 * SIN_TABLE_SIZE);
+        return Math.cos(conformAngle(degrees) / 360 * (2 * Math.PI));
+    }
+
+    /**
+     * Computes the angle of the point (x, y) from the positive X-axis.
+     *
+     * @param y The y coordinate.
+     * @param x The x coordinate.
+     * @return The angle in degrees, in the range [-180, 180].
+     */
+    public static double atan2Deg(double y, double x) {
+        if (!useTrigTable)
+            return Math.toDegrees(Math.atan2(y, x));
+        if (x == 0 && y == 0)
+            return 0;
+
+        final double absX = Math.abs(x);
+        final double absY = Math.abs(y);
+        // Reduce to the first octant, where the ratio is in [0, 1].
+        double angle = absY <= absX
+                ? tableAtan(absY / absX)
+                : 90 - tableAtan(absX / absY);
+        if (x < 0)
+            angle = 180 - angle;
+        return y < 0 ? -angle : angle;
+    }
+
+    // Interpolates the sine table, the position is in table steps.
+    private static double tableSin(double position) {
+        final long step = (long) Math.floor(position);
+        final double frac = position - step;
+        final int i = (int) (step & (SIN_TABLE_SIZE - 1));
+        return sinTable[i] + (sinTable[i + 1] - sinTable[i]) * frac;
+    }
+
+    // Interpolates the atan table, the ratio must be in [0, 1].
+    private static double tableAtan(double ratio) {
+        final double position = ratio * ATAN_TABLE_SIZE;
+        final int i = Math.min((int) position, ATAN_TABLE_SIZE - 1);
+        final double frac = position - i;
+        return atanTable[i] + (atanTable[i + 1] - atanTable[i]) * frac;
+    }
 }
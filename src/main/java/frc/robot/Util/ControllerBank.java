@@ -0,0 +1,176 @@
+package frc.robot.Util;
+
+import java.util.Arrays;
+
+/**
+ * ControllerBank solves many PID and PWID controllers at once. The state of
+ * every controller lives in parallel primitive arrays and one call to solve
+ * runs them all in a single loop.
+ *
+ * Both kinds of controller are solved the same way, the integral is updated
+ * as integral * decay + error * scale where a PID controller has a decay of 1
+ * and a scale of dt, and a PWID controller has a scale of 1 and a decay of
+ * 0.5^(dt / halfLife). Those factors only depend on dt, so they are
+ * recomputed only when dt changes instead of calling Math.pow per controller.
+ */
+public class ControllerBank {
+    private int size = 0;
+
+    private double[] kP = new double[0];
+    private double[] kI = new double[0];
+    private double[] kD = new double[0];
+    // The output limit, infinite when there is none.
+    private double[] max = new double[0];
+    // ln(2) / halfLife for PWID controllers, NaN for PID controllers.
+    private double[] decayRate = new double[0];
+
+    private double[] lastError = new double[0];
+    private double[] accumulatedError = new double[0];
+    private double[] error = new double[0];
+    private double[] output = new double[0];
+    private boolean[] active = new boolean[0];
+
+    // The factors for cachedDt.
+    private double cachedDt = Double.NaN;
+    private double[] decay = new double[0];
+    private double[] errorScale = new double[0];
+
+    /**
+     * Adds a controller to the bank. Its constants are copied, its state starts
+     * reset.
+     *
+     * @param controller A PIDController or a PWIDController.
+     * @return The slot of the controller.
+     */
+    public int add(MotionController controller) {
+        final int slot = size;
+        grow(size + 1);
+        size++;
+        setController(slot, controller);
+        return slot;
+    }
+
+    /**
+     * Replaces the constants of a slot and resets its state.
+     *
+     * @param slot       The slot of the controller.
+     * @param controller A PIDController or a PWIDController.
+     */
+    public void setController(int slot, MotionController controller) {
+        checkSlot(slot);
+        if (controller instanceof PIDController) {
+            final PIDConstant constant = ((PIDController) controller).constant;
+            set(slot, constant.kP, constant.kI, constant.kD, constant.max, Double.NaN);
+        } else if (controller instanceof PWIDController) {
+            final PWIDConstant constant = ((PWIDController) controller).constant;
+            set(slot, constant.kP, constant.kI, constant.kD, constant.max, Math.log(2) / constant.iHalfLife);
+        } else {
+            throw new IllegalArgumentException("ControllerBank only supports PIDController and PWIDController");
+        }
+        reset(slot);
+    }
+
+    private void set(int slot, double p, double i, double d, Double limit, double rate) {
+        kP[slot] = p;
+        kI[slot] = i;
+        kD[slot] = d;
+        max[slot] = limit == null ? Double.POSITIVE_INFINITY : Math.abs(limit);
+        decayRate[slot] = rate;
+        // forces the factors of this slot to be computed on the next solve
+        cachedDt = Double.NaN;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Sets the error of a controller for the next solve and marks it active.
+     *
+     * @param slot  The slot of the controller.
+     * @param value The current error.
+     */
+    public void setError(int slot, double value) {
+        error[slot] = value;
+        active[slot] = true;
+    }
+
+    // Stops solving a controller until its error is set again.
+    public void setInactive(int slot) {
+        active[slot] = false;
+    }
+
+    public boolean isActive(int slot) {
+        return active[slot];
+    }
+
+    // Gets the output of a controller from the last solve.
+    public double getOutput(int slot) {
+        return output[slot];
+    }
+
+    // Clears the last and accumulated error of a controller.
+    public void reset(int slot) {
+        lastError[slot] = 0;
+        accumulatedError[slot] = 0;
+    }
+
+    /**
+     * Solves every active controller.
+     *
+     * @param dTime The time elapsed since the last solve.
+     */
+    public void solve(double dTime) {
+        if (dTime != cachedDt)
+            computeFactors(dTime);
+
+        final double inverseDTime = 1 / dTime;
+        for (int i = 0; i < size; i++) {
+            if (!active[i])
+                continue;
+            final double e = error[i];
+            accumulatedError[i] = accumulatedError[i] * decay[i] + e * errorScale[i];
+            final double correct = kP[i] * e
+                    + kD[i] * (e - lastError[i]) * inverseDTime
+                    + kI[i] * accumulatedError[i];
+            lastError[i] = e;
+            output[i] = Math.max(-max[i], Math.min(max[i], correct));
+        }
+    }
+
+    private void computeFactors(double dTime) {
+        for (int i = 0; i < size; i++) {
+            if (Double.isNaN(decayRate[i])) {
+                decay[i] = 1;
+                errorScale[i] = dTime;
+            } else {
+                decay[i] = Math.exp(-decayRate[i] * dTime);
+                errorScale[i] = 1;
+            }
+        }
+        cachedDt = dTime;
+    }
+
+    private void grow(int capacity) {
+        if (capacity <= kP.length)
+            return;
+        final int newLength = Math.max(8, kP.length * 2);
+        kP = Arrays.copyOf(kP, newLength);
+        kI = Arrays.copyOf(kI, newLength);
+        kD = Arrays.copyOf(kD, newLength);
+        max = Arrays.copyOf(max, newLength);
+        decayRate = Arrays.copyOf(decayRate, newLength);
+        lastError = Arrays.copyOf(lastError, newLength);
+        accumulatedError = Arrays.copyOf(accumulatedError, newLength);
+        error = Arrays.copyOf(error, newLength);
+        output = Arrays.copyOf(output, newLength);
+        active = Arrays.copyOf(active, newLength);
+        decay = Arrays.copyOf(decay, newLength);
+        errorScale = Arrays.copyOf(errorScale, newLength);
+    }
+
+    private void checkSlot(int slot) {
+        if (slot < 0 || slot >= size)
+            throw new IndexOutOfBoundsException("Slot " + slot + " is out of bounds for controller bank.");
+    }
+}
@@ -0,0 +1,47 @@
+package frc.robot.Util;
+
+import edu.wpi.first.wpilibj.TimedRobot;
+
+/**
+ * ControllerGains holds the continuous time gains of a MotionController, the
+ * form motor controllers that run their own loop expect. The integral gain is
+ * per unit of error times seconds and the derivative gain per unit of error
+ * per second.
+ */
+public class ControllerGains {
+    public final double kP;
+    public final double kI;
+    public final double kD;
+
+    public ControllerGains(double kP, double kI, double kD) {
+        this.kP = kP;
+        this.kI = kI;
+        this.kD = kD;
+    }
+
+    /**
+     * Converts the constants of a controller into continuous time gains.
+     *
+     * A PIDController already uses continuous time gains. A PWIDController sums
+     * the error once per loop and decays that sum, which a plain integral can't
+     * do, so its sum is treated as the integral over one nominal loop period.
+     * With no half life the sum is just the current error, so its integral gain
+     * adds to the proportional gain.
+     *
+     * @param controller A PIDController or a PWIDController.
+     * @return The gains of the controller.
+     */
+    public static ControllerGains of(MotionController controller) {
+        if (controller instanceof PIDController) {
+            final PIDConstant constant = ((PIDController) controller).constant;
+            return new ControllerGains(constant.kP, constant.kI, constant.kD);
+        }
+        if (controller instanceof PWIDController) {
+            final PWIDConstant constant = ((PWIDController) controller).constant;
+            if (constant.iHalfLife <= 0)
+                return new ControllerGains(constant.kP + constant.kI, 0, constant.kD);
+            return new ControllerGains(constant.kP, constant.kI / TimedRobot.kDefaultPeriod, constant.kD);
+        }
+        throw new IllegalArgumentException("Only PIDController and PWIDController gains can be converted");
+    }
+}
@@ -1,13 +1,20 @@
 package frc.robot.Util;
 
+import frc.robot.Core.LoopClock;
 import frc.robot.Core.Time;
 
 public class GetDTime {
-    double lastTime = Double.MIN_VALUE;
+    double lastTime = Double.NaN;
 
+    /**
+     * Gets the time since the last call. The first call has nothing to measure
+     * against and returns the nominal loop time.
+     */
     public double tick() {
         var temp = lastTime;
         lastTime = Time.getTimeSincePower();
+        if (Double.isNaN(temp))
+            return LoopClock.NOMINAL_DT;
         return lastTime - temp;
     }
 }
@@ -1,17 +1,45 @@
 package frc.robot.Util;
 
-import edu.wpi.first.wpilibj2.command.Command;
-import edu.wpi.first.wpilibj2.command.CommandScheduler;
-import edu.wpi.first.wpilibj2.command.Commands;
+import frc.robot.Core.Time;
 
+/**
+ * A Promise is resolved once an asynchronous operation is done, or cancelled
+ * if it is abandoned. Cancelling a promise made by then cancels the promises it
+ * is waiting on, and cancelling a promise cancels everything chained after it,
+ * so cancelling the end of a chain tears the whole chain down.
+ */
 public abstract class Promise {
     public abstract boolean isResolved();
 
+    public abstract boolean isCancelled();
+
+    // Cancels the promise if it is still pending. Its then callbacks never run.
+    public abstract void cancel();
+
     protected abstract void i_then(Lambda callback);
 
+    // Adds a callback run if the promise is cancelled while pending.
+    protected abstract void i_onCancel(Lambda callback);
+
+    /**
+     * Runs a callback if the promise is cancelled while pending, used to stop
+     * whatever would have resolved it.
+     *
+     * @return This promise.
+     */
+    public Promise onCancel(Lambda callback) {
+        i_onCancel(callback);
+        return this;
+    }
+
     public Promise then(Lambda callback) {
-        i_then(callback);
-        return Promise.immediate();
+        SimplePromise returnPromise = new SimplePromise();
+        link(this, returnPromise);
+        i_then(() -> {
+            callback.run();
+            returnPromise.resolve();
+        });
+        return returnPromise;
     }
 
     public Promise then(Getter<Promise> promiseGetter) {
@@ -19,35 +47,53 @@ public abstract class Promise {
             return promiseGetter.get();
         } else {
             SimplePromise returnPromise = new SimplePromise();
+            link(this, returnPromise);
 
             i_then(() -> {
                 Promise promise = promiseGetter.get();
-                promise.i_then(() -> {
-                    returnPromise.resolve();
-                });
+                link(promise, returnPromise);
+                promise.i_then(returnPromise::resolve);
             });
 
             return returnPromise;
         }
     }
 
+    /**
+     * Gives up waiting for this promise after a delay. If the delay passes first
+     * this promise is cancelled and the returned promise resolves anyway.
+     *
+     * @param seconds The delay in seconds.
+     */
+    public Promise withTimeout(double seconds) {
+        return race(this, timeout(seconds));
+    }
+
+    // Cancels the later promise with the earlier one, and the earlier one with
+    // the later one.
+    private static void link(Promise earlier, SimplePromise later) {
+        earlier.i_onCancel(later::cancel);
+        later.i_onCancel(earlier::cancel);
+    }
+
     public static Promise timeout(double seconds) {
         SimplePromise prom = new SimplePromise();
-
-        CommandScheduler.getInstance().schedule(Commands.waitSeconds(seconds).andThen(new Command() {
-            @Override
-            public void execute() {
-                prom.resolve();
-                cancel();
-            }
-        }));
+        var timer = Time.timeout(prom::resolve, seconds);
+        prom.i_onCancel(timer::cancel);
         return prom;
     }
 
+    // Resolves once every promise has resolved. Cancelling it cancels them all,
+    // and it is cancelled if any of them is.
     public static Promise all(Promise... proms) {
         var resolved = new Container<Integer>(0);
         var all = new SimplePromise();
+        if (proms.length == 0) {
+            all.resolve();
+            return all;
+        }
         for (var prom : proms) {
+            link(prom, all);
             prom.i_then(() -> {
                 resolved.val++;
                 if (resolved.val == proms.length)
@@ -57,6 +103,30 @@ public abstract class Promise {
         return all;
     }
 
+    // Resolves once any promise has resolved. The others keep running.
+    public static Promise any(Promise... proms) {
+        var any = new SimplePromise();
+        for (var prom : proms) {
+            any.i_onCancel(prom::cancel);
+            prom.i_then(any::resolve);
+        }
+        return any;
+    }
+
+    // Resolves once any promise has resolved and cancels the others.
+    public static Promise race(Promise... proms) {
+        var race = new SimplePromise();
+        for (var prom : proms) {
+            race.i_onCancel(prom::cancel);
+            prom.i_then(() -> {
+                race.resolve();
+                for (var other : proms)
+                    other.cancel();
+            });
+        }
+        return race;
+    }
+
     // Creates and resolves a promise immediately.
     public static SimplePromise immediate() {
         SimplePromise promise = new SimplePromise();
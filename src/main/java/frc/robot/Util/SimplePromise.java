@@ -7,31 +7,64 @@ import java.util.List;
 public class SimplePromise extends Promise {
 
     private boolean resolved = false; // Flag to check if the promise has been resolved.
+    private boolean cancelled = false; // Flag to check if the promise has been cancelled.
 
-    // A list to hold the lambda expressions (callbacks) that should run after the promise is resolved.
+    // The callbacks to run once the promise is resolved, and the ones to run if it
+    // is cancelled. Both are dropped once the promise settles so whatever they
+    // capture can be freed.
     private List<Lambda> callbacks = new ArrayList<>();
+    private List<Lambda> cancelCallbacks = new ArrayList<>();
 
     // Checks if the promise has been resolved.
     public boolean isResolved() {
         return resolved;
     }
 
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
     // Adds a callback to be executed when the promise is resolved.
     public void i_then(Lambda callback) {
         if (resolved) {
             callback.run();
-        } else {
+        } else if (!cancelled) {
             callbacks.add(callback);
         }
     }
 
+    // Adds a callback to be executed if the promise is cancelled.
+    protected void i_onCancel(Lambda callback) {
+        if (cancelled) {
+            callback.run();
+        } else if (!resolved) {
+            cancelCallbacks.add(callback);
+        }
+    }
+
     // Resolves the promise, running any callbacks that have been added.
     public void resolve() {
-        if (!resolved) {
+        if (!resolved && !cancelled) {
             resolved = true;
-            for (Lambda callback : callbacks) {
+            var toRun = callbacks;
+            callbacks = null;
+            cancelCallbacks = null;
+            for (Lambda callback : toRun) {
+                callback.run();
+            }
+        }
+    }
+
+    // Cancels the promise, running any cancel callbacks that have been added.
+    public void cancel() {
+        if (!resolved && !cancelled) {
+            cancelled = true;
+            var toRun = cancelCallbacks;
+            callbacks = null;
+            cancelCallbacks = null;
+            for (Lambda callback : toRun) {
                 callback.run();
             }
         }
     }
-}
\ No newline at end of file
+}
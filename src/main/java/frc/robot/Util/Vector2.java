@@ -39,9 +39,8 @@ public class Vector2 {
      * @param angle The angle in degrees.
      */
     public static Vector2 fromAngle(double angle) {
-        double radians = AngleMath.conformAngle(angle) / 360 * (2 * Math.PI);
-        var x = Math.cos(radians);
-        var y = Math.sin(radians);
+        var x = AngleMath.cosDeg(angle);
+        var y = AngleMath.sinDeg(angle);
         return new Vector2(x, y);
     }
 
@@ -82,7 +81,7 @@ public class Vector2 {
      * @return A new Vector2 representing the scaled vector.
      */
     public Vector2 multiply(double other) {
-        return multiply(new Vector2(other, other));
+        return new Vector2(x * other, y * other);
     }
 
     /**
@@ -91,8 +90,7 @@ public class Vector2 {
      * @return The angle of the vector in degrees.
      */
     public double getAngleDeg() {
-        double angle = Math.atan2(y, x);
-        angle = Math.toDegrees(angle);
+        double angle = AngleMath.atan2Deg(y, x);
         angle = (angle + 360) % 360;
         return angle;
     }
@@ -135,7 +133,7 @@ public class Vector2 {
      * @return A new Vector2 representing the rotated vector.
      */
     public Vector2 rotate(double degrees) {
-        return Vector2.fromAngleAndMag(getAngleDeg() + degrees, getMagnitude());
+        return clone().rotateInPlace(degrees);
     }
 
     /**
@@ -145,7 +143,7 @@ public class Vector2 {
      * @return A new Vector2 representing the difference of the two vectors.
      */
     public Vector2 minus(Vector2 other) {
-        return this.add(other.multiply(-1));
+        return new Vector2(x - other.x, y - other.y);
     }
 
     /**
@@ -170,4 +168,101 @@ public class Vector2 {
     public Vector2 mapDimentions(Mapper<Double, Double> mapper) {
         return new Vector2(mapper.map(x), mapper.map(y));
     }
+
+    // In-place operations. These mutate and return this vector so that code
+    // running every tick can reuse scratch vectors instead of allocating.
+
+    /**
+     * Sets the x and y components of this vector.
+     *
+     * @param x The new x component.
+     * @param y The new y component.
+     * @return This vector.
+     */
+    public Vector2 set(double x, double y) {
+        this.x = x;
+        this.y = y;
+        return this;
+    }
+
+    /**
+     * Copies the components of another vector into this vector.
+     *
+     * @param other The vector to copy.
+     * @return This vector.
+     */
+    public Vector2 set(Vector2 other) {
+        return set(other.x, other.y);
+    }
+
+    /**
+     * Sets this vector from an angle and magnitude.
+     *
+     * @param angle     The angle in degrees.
+     * @param magnitude The magnitude of the vector.
+     * @return This vector.
+     */
+    public Vector2 setFromAngleAndMag(double angle, double magnitude) {
+        return set(AngleMath.cosDeg(angle) * magnitude, AngleMath.sinDeg(angle) * magnitude);
+    }
+
+    /**
+     * Adds another vector to this vector.
+     *
+     * @param other The vector to add.
+     * @return This vector.
+     */
+    public Vector2 addInPlace(Vector2 other) {
+        x += other.x;
+        y += other.y;
+        return this;
+    }
+
+    /**
+     * Subtracts another vector from this vector.
+     *
+     * @param other The vector to subtract.
+     * @return This vector.
+     */
+    public Vector2 minusInPlace(Vector2 other) {
+        x -= other.x;
+        y -= other.y;
+        return this;
+    }
+
+    /**
+     * Multiplies this vector by a scalar.
+     *
+     * @param scalar The scalar to multiply with.
+     * @return This vector.
+     */
+    public Vector2 multiplyInPlace(double scalar) {
+        x *= scalar;
+        y *= scalar;
+        return this;
+    }
+
+    /**
+     * Sets the magnitude of this vector, keeping its direction.
+     *
+     * @param magnitude The new magnitude.
+     * @return This vector.
+     */
+    public Vector2 setMagnitude(double magnitude) {
+        return multiplyInPlace(magnitude / getMagnitude());
+    }
+
+    /**
+     * Rotates this vector by a certain number of degrees.
+     *
+     * @param degrees The number of degrees to rotate the vector.
+     * @return This vector.
+     */
+    public Vector2 rotateInPlace(double degrees) {
+        // 2x2 rotation matrix, one sin/cos pair instead of going through the angle
+        // and magnitude of the vector.
+        final double cos = AngleMath.cosDeg(degrees);
+        final double sin = AngleMath.sinDeg(degrees);
+        return set(x * cos - y * sin, x * sin + y * cos);
+    }
 }